@@ -67,6 +67,33 @@ const client = {
         return handleResponse(response);
     },
 
+    // reads an NDJSON response line by line, calling onEvent for each object
+    stream: async (url, onEvent) => {
+        const response = await fetch(`${BASE_URL}${url}`, {
+            method: 'GET',
+            headers: { ...getHeaders(), Accept: 'application/x-ndjson' },
+        });
+        if (!response.ok || !response.body) {
+            return handleResponse(response);
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        for (;;) {
+            const { done, value } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+            const lines = buffer.split('\n');
+            buffer = lines.pop();
+            lines.filter(line => line.trim()).forEach(line => onEvent(JSON.parse(line)));
+        }
+        if (buffer.trim()) {
+            onEvent(JSON.parse(buffer));
+        }
+        return { data: null };
+    },
+
     delete: async (url) => {
         const response = await fetch(`${BASE_URL}${url}`, {
             method: 'DELETE',
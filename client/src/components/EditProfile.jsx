@@ -70,10 +70,14 @@ const EditProfile = ({ isOpen, onClose }) => {
         setIsPasswordLoading(true);
 
         try {
-            await api.put('/api/auth/password', {
+            const { data } = await api.put('/api/auth/password', {
                 oldPassword: passwordData.oldPassword,
                 newPassword: passwordData.newPassword
             });
+            // the old token is revoked by the change; keep the session on the new one
+            if (data?.token) {
+                localStorage.setItem('token', data.token);
+            }
             toast.success('Password updated successfully');
             setPasswordData({
                 oldPassword: '',
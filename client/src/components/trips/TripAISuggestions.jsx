@@ -15,12 +15,19 @@ const TripAISuggestions = ({ trip, onUpdate }) => {
     // ---------------- FETCH AI ----------------
     const fetchSuggestions = async () => {
         setLoading(true);
+        setSuggestions({ places: [], items: [] });
         try {
-            const res = await api.get(`/api/trips/${trip.id}/suggest`);
-            setSuggestions(res.data);
+            await api.stream(`/api/trips/${trip.id}/suggest/stream`, (event) => {
+                const key = event.type === 'place' ? 'places' : 'items';
+                setSuggestions(prev => ({
+                    ...prev,
+                    [key]: [...prev[key], event.value]
+                }));
+            });
             toast.success('Suggestions generated');
         } catch (e) {
             console.error(e);
+            setSuggestions(null);
             toast.error('Failed to generate suggestions');
         } finally {
             setLoading(false);
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import api from '../../api/client';
 import { Button } from '../ui/Button';
 import { Input } from '../ui/Input';
@@ -13,15 +13,26 @@ const TripPackingList = ({ tripId }) => {
     const [newItem, setNewItem] = useState('');
     const [loading, setLoading] = useState(true);
     const [adding, setAdding] = useState(false);
+    // checkbox toggles are queued and sent as one batch request
+    const pendingToggles = useRef(new Map());
+    const flushTimer = useRef(null);
+    const revision = useRef(null);
 
     useEffect(() => {
         fetchItems();
+        return () => {
+            if (flushTimer.current) {
+                clearTimeout(flushTimer.current);
+                flushToggles();
+            }
+        };
     }, [tripId]);
 
     const fetchItems = async () => {
         try {
             const response = await api.get(`/api/trips/${tripId}/items`);
             setItems(response.data);
+            revision.current = Math.max(0, ...response.data.map(i => i.revision ?? 0));
         } catch (error) {
             console.error('Failed to fetch items:', error);
             toast.error('Failed to load packing list');
@@ -59,19 +70,41 @@ const TripPackingList = ({ tripId }) => {
         }
     };
 
-    const handleTogglePacked = async (item) => {
-        try {
-            const updatedItem = { ...item, packed: !item.packed };
-            setItems(items.map(i => i.id === item.id ? updatedItem : i));
+    const flushToggles = async () => {
+        flushTimer.current = null;
+        const changes = [...pendingToggles.current].map(([id, value]) => ({ id, value }));
+        pendingToggles.current.clear();
+        if (!changes.length) return;
 
-            await api.put(`/api/trips/${tripId}/items/${item.id}`, updatedItem);
+        try {
+            const response = await api.post(`/api/trips/${tripId}/batch`, {
+                items: changes,
+                since: revision.current,
+            });
+            revision.current = response.data.revision;
+            const changed = new Map(response.data.items.map(i => [i.id, i]));
+            setItems(current => {
+                const known = new Set(current.map(i => i.id));
+                // rows toggled again while this request was in flight keep their local state
+                const merged = current.map(i =>
+                    pendingToggles.current.has(i.id) ? i : (changed.get(i.id) ?? i));
+                return [...merged, ...response.data.items.filter(i => !known.has(i.id))];
+            });
         } catch (error) {
-            console.error('Failed to update item:', error);
+            console.error('Failed to update items:', error);
             toast.error('Failed to update status');
-            setItems(items.map(i => i.id === item.id ? item : i));
+            fetchItems();
         }
     };
 
+    const handleTogglePacked = (item) => {
+        const packed = !item.packed;
+        setItems(current => current.map(i => i.id === item.id ? { ...i, packed } : i));
+        pendingToggles.current.set(item.id, packed);
+        clearTimeout(flushTimer.current);
+        flushTimer.current = setTimeout(flushToggles, 400);
+    };
+
     if (loading) return <div className="text-center p-4">Loading list...</div>;
 
     return (
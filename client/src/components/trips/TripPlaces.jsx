@@ -65,7 +65,8 @@ const TripPlaces = ({ tripId }) => {
             const updatedPlace = { ...place, visited: !place.visited };
             setPlaces(places.map(p => p.id === place.id ? updatedPlace : p));
 
-            await api.put(`/api/trips/${tripId}/places/${place.id}`, updatedPlace);
+            // the bulk endpoint flips only the flag: a revision bump and one UPDATE
+            await api.put(`/api/trips/${tripId}/places/bulk`, { ids: [place.id], visited: updatedPlace.visited });
         } catch (error) {
             console.error('Failed to update place:', error);
             toast.error('Failed to update status');
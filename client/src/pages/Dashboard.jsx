@@ -49,7 +49,7 @@ const Dashboard = () => {
 
     const fetchTrips = async () => {
         try {
-            const response = await api.get('/api/trips');
+            const response = await api.get('/api/trips/summary');
             setTrips(response.data);
         } catch (error) {
             console.error('Failed to fetch trips:', error);
@@ -64,7 +64,12 @@ const Dashboard = () => {
         setIsCreating(true);
         try {
             const response = await api.post('/api/trips', newTrip);
-            setTrips([...trips, response.data]);
+            const { id, name, destination, fromDate, toDate } = response.data;
+            // the list holds TripSummary rows; a new trip has nothing in it yet
+            setTrips([...trips, {
+                id, name, destination, fromDate, toDate,
+                itemCount: 0, packedCount: 0, placeCount: 0, visitedCount: 0,
+            }]);
             setIsModalOpen(false);
             setNewTrip({ name: '', destination: '', fromDate: '', toDate: '' });
             toast.success('Trip created successfully!');
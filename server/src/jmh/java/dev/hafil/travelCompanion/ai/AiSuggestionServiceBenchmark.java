@@ -0,0 +1,80 @@
+package dev.hafil.travelCompanion.ai;
+
+import dev.hafil.travelCompanion.support.StubChatModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Prompt assembly and response parsing around the model call, for trips
+ * with {@code existing} places and items already on them. Past a few
+ * hundred names the prompt stops growing: the compactor caps the lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiSuggestionServiceBenchmark {
+
+    @Param({"10", "200", "1000"})
+    public int existing;
+
+    private AiSuggestionService service;
+    private SuggestionInput input;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new AiSuggestionService(
+                ChatClient.builder(new StubChatModel(Duration.ZERO)),
+                new AiSuggestionCache(null, 10, 60_000, false),
+                new AiCallGuard(new AiCallMetrics(registry), registry,
+                        30_000, 16, 500, 5, 30_000, false, 120, 120, 10, 10),
+                new SuggestionFallback(registry, 10, 60_000),
+                new PromptCompactor(1000, 60),
+                new SuggestionDeduplicator(0.75));
+        List<String> places = names("Place", existing);
+        List<String> items = names("Item", existing);
+        input = new SuggestionInput("Relaxing week by the sea", "Lisbon",
+                LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 7), 7, places, items);
+        response = "{\"places\": [" + quoted(names("New place", 20)) + "], \"items\": ["
+                + quoted(names("New item", 20)) + "]}";
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return service.buildPrompt(input);
+    }
+
+    @Benchmark
+    public AiSuggestionResponse parseResponse() {
+        return service.parseResponse(response);
+    }
+
+    private static List<String> names(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + " " + i).toList();
+    }
+
+    private static String quoted(List<String> values) {
+        return String.join(", ", values.stream().map(v -> "\"" + v + "\"").toList());
+    }
+}
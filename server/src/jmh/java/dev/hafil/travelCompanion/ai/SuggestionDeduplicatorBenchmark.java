@@ -0,0 +1,81 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Near-duplicate filtering of a 30-suggestion answer against trips with
+ * {@code existing} items, a third of the suggestions being spelling
+ * variants of items already on the trip. {@code dedupeResponse} is the
+ * non-streaming path; {@code streamFilter} indexes the trip instead and
+ * probes it once per suggestion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionDeduplicatorBenchmark {
+
+    private static final String[] WORDS = {
+            "travel", "rain", "sun", "beach", "hiking", "wool", "power", "phone", "camera", "silk",
+            "linen", "spare", "compact", "thermal", "waterproof", "folding", "packing", "sleep"};
+    private static final String[] THINGS = {
+            "jacket", "towel", "adapter", "charger", "socks", "pillow", "bag", "hat", "scarf", "mask",
+            "boots", "cubes", "bottle", "umbrella", "blanket", "gloves"};
+
+    @Param({"100", "1000", "5000"})
+    public int existing;
+
+    private final SuggestionDeduplicator deduplicator = new SuggestionDeduplicator(0.75);
+    private List<String> items;
+    private List<String> suggestions;
+
+    @Setup
+    public void setUp() {
+        items = IntStream.range(0, existing).mapToObj(SuggestionDeduplicatorBenchmark::name).toList();
+        suggestions = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            suggestions.add(i % 3 == 0
+                    ? items.get(i * 7 % existing).toUpperCase().replace(" ", "") + "s"
+                    : "Suggested " + WORDS[i % WORDS.length] + " gadget " + i);
+        }
+    }
+
+    @Benchmark
+    public List<String> dedupeResponse() {
+        return deduplicator.dedupe(suggestions, items);
+    }
+
+    @Benchmark
+    public int streamFilter() {
+        Predicate<String> isNew = deduplicator.streamFilter(items);
+        int accepted = 0;
+        for (String suggestion : suggestions) {
+            if (isNew.test(suggestion)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private static String name(int i) {
+        return WORDS[i % WORDS.length] + " " + THINGS[i / WORDS.length % THINGS.length] + " " + i;
+    }
+}
@@ -0,0 +1,60 @@
+package dev.hafil.travelCompanion.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a trip with {@code size} items and {@code size}
+ * places, using the same mapper defaults Spring MVC writes responses with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Trip trip;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        trip = new Trip("Benchmark trip", "Lisbon", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 7));
+        trip.setId(1L);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item("Item " + i, trip);
+            item.setId((long) i);
+            item.setPacked(i % 2 == 0);
+            trip.getItems().add(item);
+            PlaceToVisit place = new PlaceToVisit("Place " + i, trip);
+            place.setId((long) i);
+            place.setVisited(i % 3 == 0);
+            trip.getPlacesToVisit().add(place);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(trip);
+    }
+}
@@ -0,0 +1,85 @@
+package dev.hafil.travelCompanion.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of minting and checking a token. The {@code perRequest*} benchmarks
+ * compare what {@code JwtAuthFilter} pays per request: a fresh parser and
+ * two verifications (the old validate-then-extract path), one verification
+ * on the shared parser, and a principal cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtService jwtService;
+    private JwtPrincipalCache principalCache;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000, false);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = jwtService.generateToken("bench-user");
+        principalCache = new JwtPrincipalCache(1000, 300_000);
+        UserDetails principal = new User("bench-user", "password", List.of());
+        principalCache.put(token, principal, Instant.now().plusSeconds(3600), principalCache.generation());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String perRequestTwoParsers() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims perRequestParseOnce() {
+        return jwtService.parseClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public UserDetails perRequestCached() {
+        return principalCache.get(token);
+    }
+}
@@ -2,8 +2,10 @@ package dev.hafil.travelCompanion;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TravelCompanionApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,283 @@
+package dev.hafil.travelCompanion.ai;
+
+import dev.hafil.travelCompanion.exception.AiUnavailableException;
+import dev.hafil.travelCompanion.exception.TooManyRequestsException;
+import dev.hafil.travelCompanion.ratelimit.KeyedTokenBuckets;
+import dev.hafil.travelCompanion.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Every model call goes through here. In order, a call is refused when:
+ * <ol>
+ *   <li>the circuit is open ({@code 503});</li>
+ *   <li>all {@code max-concurrent} call slots stay busy for {@code max-wait-ms} ({@code 503});</li>
+ *   <li>the global or the caller's token bucket is empty ({@code 429}).</li>
+ * </ol>
+ * Tokens are only taken once the call would otherwise go ahead, so a
+ * refused call costs the caller nothing.
+ * A call that fails or takes longer than {@code timeout-ms} counts
+ * against the circuit and surfaces as {@link AiUnavailableException}. A
+ * timed-out call keeps its slot until the model actually returns, so a
+ * hanging provider cannot pile up threads behind the caller's back.
+ */
+@Component
+public class AiCallGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(AiCallGuard.class);
+    private static final String UNAVAILABLE = "The AI assistant is unavailable right now, try again shortly";
+
+    private final AiCallMetrics metrics;
+    private final MeterRegistry registry;
+    private final CircuitBreaker circuit;
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final Duration timeout;
+    private final boolean rateLimited;
+    private final TokenBucket globalBucket;
+    private final KeyedTokenBuckets userBuckets;
+    private final ExecutorService callers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ai-call-", 1).factory());
+
+    public AiCallGuard(
+            AiCallMetrics metrics,
+            MeterRegistry registry,
+            @Value("${travelCompanion.ai.resilience.timeout-ms:30000}") long timeoutMs,
+            @Value("${travelCompanion.ai.resilience.max-concurrent:16}") int maxConcurrent,
+            @Value("${travelCompanion.ai.resilience.max-wait-ms:500}") long maxWaitMs,
+            @Value("${travelCompanion.ai.resilience.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${travelCompanion.ai.resilience.circuit.open-ms:30000}") long openMs,
+            @Value("${travelCompanion.ai.resilience.rate-limit.enabled:true}") boolean rateLimited,
+            @Value("${travelCompanion.ai.resilience.rate-limit.global.capacity:120}") long globalCapacity,
+            @Value("${travelCompanion.ai.resilience.rate-limit.global.refill-per-minute:120}") double globalRefillPerMinute,
+            @Value("${travelCompanion.ai.resilience.rate-limit.per-user.capacity:10}") long userCapacity,
+            @Value("${travelCompanion.ai.resilience.rate-limit.per-user.refill-per-minute:10}") double userRefillPerMinute,
+            @Value("${travelCompanion.ai.resilience.rate-limit.per-user.max-tracked:100000}") long maxTrackedUsers) {
+        this.metrics = metrics;
+        this.registry = registry;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.slots = new Semaphore(maxConcurrent);
+        this.circuit = new CircuitBreaker(failureThreshold, openMs, this::onTransition);
+        this.rateLimited = rateLimited;
+        this.globalBucket = new TokenBucket(globalCapacity, globalRefillPerMinute / 60);
+        this.userBuckets = new KeyedTokenBuckets(userCapacity, userRefillPerMinute / 60, maxTrackedUsers);
+    }
+
+    /**
+     * Per-caller half of a model call that several callers share: refuses
+     * when the circuit is open, then charges {@code username}'s bucket. The
+     * shared call itself goes through {@link #call} without a username, so
+     * only the bulkhead, the circuit and the global bucket apply to it.
+     */
+    public void admit(String operation, String username) {
+        checkCircuit(operation);
+        if (rateLimited && username != null) {
+            chargeUser(operation, username);
+        }
+    }
+
+    /**
+     * Runs a blocking model call under the guard. {@code username} is the
+     * caller charged for it, or null for calls not made on a user's behalf.
+     */
+    public ChatResponse call(String operation, String username, Supplier<ChatResponse> call) {
+        checkCircuit(operation);
+        if (!acquireSlot()) {
+            throw rejected(operation, "bulkhead_full", 1);
+        }
+        CircuitBreaker.Permit permit = circuit.tryAcquire();
+        if (permit == null) {
+            slots.release();
+            throw rejected(operation, "circuit_open", circuit.secondsUntilTrial());
+        }
+        try {
+            charge(operation, username);
+        } catch (TooManyRequestsException ex) {
+            circuit.release(permit);
+            slots.release();
+            throw ex;
+        }
+
+        // whoever claims this first owns the slot: the task if it starts, the caller if it gives up first
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<ChatResponse> future;
+        try {
+            future = callers.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return metrics.call(operation, call);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            slots.release();
+            circuit.release(permit);
+            throw ex;
+        }
+
+        try {
+            ChatResponse response = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            circuit.onSuccess(permit);
+            return response;
+        } catch (TimeoutException ex) {
+            abandon(future, claimed);
+            circuit.onFailure(permit);
+            throw rejected(operation, "timeout", 1);
+        } catch (ExecutionException ex) {
+            circuit.onFailure(permit);
+            log.warn("Model call {} failed", operation, ex.getCause());
+            throw new AiUnavailableException(UNAVAILABLE, 1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abandon(future, claimed);
+            circuit.release(permit);
+            throw new IllegalStateException("Interrupted while waiting for the model", ex);
+        }
+    }
+
+    // not interrupted: a call already running keeps its slot until the model returns
+    private void abandon(Future<ChatResponse> future, AtomicBoolean claimed) {
+        future.cancel(false);
+        if (claimed.compareAndSet(false, true)) {
+            slots.release();
+        }
+    }
+
+    /**
+     * Streaming variant: the checks run on subscription, and the timeout
+     * applies to the first chunk and to every gap between chunks.
+     */
+    public Flux<ChatResponse> stream(String operation, String username, Supplier<Flux<ChatResponse>> stream) {
+        return Flux.defer(() -> {
+            checkCircuit(operation);
+            // no waiting here: this may be a reactor thread
+            if (!slots.tryAcquire()) {
+                return Flux.error(rejected(operation, "bulkhead_full", 1));
+            }
+            CircuitBreaker.Permit permit = circuit.tryAcquire();
+            if (permit == null) {
+                slots.release();
+                return Flux.error(rejected(operation, "circuit_open", circuit.secondsUntilTrial()));
+            }
+            try {
+                charge(operation, username);
+            } catch (TooManyRequestsException ex) {
+                circuit.release(permit);
+                slots.release();
+                return Flux.error(ex);
+            }
+            return metrics.stream(operation, stream.get())
+                    .timeout(timeout)
+                    .doOnComplete(() -> circuit.onSuccess(permit))
+                    .doOnCancel(() -> circuit.release(permit))
+                    .onErrorMap(ex -> !(ex instanceof AiUnavailableException), ex -> {
+                        circuit.onFailure(permit);
+                        if (ex instanceof TimeoutException) {
+                            return rejected(operation, "timeout", 1);
+                        }
+                        log.warn("Model stream {} failed", operation, ex);
+                        return new AiUnavailableException(UNAVAILABLE, 1);
+                    })
+                    .doFinally(signal -> slots.release());
+        });
+    }
+
+    private void checkCircuit(String operation) {
+        if (!circuit.isCallPermitted()) {
+            throw rejected(operation, "circuit_open", circuit.secondsUntilTrial());
+        }
+    }
+
+    private void charge(String operation, String username) {
+        if (!rateLimited) {
+            return;
+        }
+        if (username != null) {
+            chargeUser(operation, username);
+        }
+        if (!globalBucket.tryConsume()) {
+            count(operation, "rate_limited");
+            throw new TooManyRequestsException("The AI assistant is busy, try again later",
+                    Math.max(1, globalBucket.secondsUntilNextToken()));
+        }
+    }
+
+    private void chargeUser(String operation, String username) {
+        TokenBucket bucket = userBuckets.get(username);
+        if (!bucket.tryConsume()) {
+            count(operation, "rate_limited");
+            throw new TooManyRequestsException("Too many AI requests, try again later",
+                    Math.max(1, bucket.secondsUntilNextToken()));
+        }
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private AiUnavailableException rejected(String operation, String reason, long retryAfterSeconds) {
+        count(operation, reason);
+        return new AiUnavailableException(UNAVAILABLE, Math.max(1, retryAfterSeconds));
+    }
+
+    private void count(String operation, String reason) {
+        Counter.builder("travelcompanion.ai.rejections")
+                .description("Model calls refused or abandoned by the guard")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        log.warn("AI circuit {} -> {}", from, to);
+        Counter.builder("travelcompanion.ai.circuit.transitions")
+                .description("AI circuit breaker state changes")
+                .tag("from", from.name().toLowerCase())
+                .tag("to", to.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuit.state();
+    }
+
+    public int slotsInUse() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callers.shutdownNow();
+    }
+}
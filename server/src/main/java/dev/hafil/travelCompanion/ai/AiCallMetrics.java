@@ -0,0 +1,131 @@
+package dev.hafil.travelCompanion.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Latency, token usage and failures of model calls, tagged by the
+ * {@code operation} that made them:
+ * <ul>
+ *   <li>{@code travelcompanion.ai.calls} timer, with an {@code outcome} tag</li>
+ *   <li>{@code travelcompanion.ai.tokens} counter, with a {@code type} of prompt or completion</li>
+ *   <li>{@code travelcompanion.ai.failures} counter, with the exception class</li>
+ * </ul>
+ */
+@Component
+public class AiCallMetrics {
+
+    private final MeterRegistry registry;
+
+    public AiCallMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public ChatResponse call(String operation, Supplier<ChatResponse> call) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            ChatResponse response = call.get();
+            recordUsage(operation, response);
+            sample.stop(timer(operation, "success"));
+            return response;
+        } catch (RuntimeException ex) {
+            sample.stop(timer(operation, "failure"));
+            failure(operation, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Times a streamed call from subscription to completion. Usage is taken
+     * from the last chunk that carries it, which is where providers put the
+     * totals for the whole response.
+     */
+    public Flux<ChatResponse> stream(String operation, Flux<ChatResponse> stream) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            AtomicReference<ChatResponse> lastWithUsage = new AtomicReference<>();
+            return stream
+                    .doOnNext(chunk -> {
+                        if (usage(chunk) != null) {
+                            lastWithUsage.set(chunk);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        recordUsage(operation, lastWithUsage.get());
+                        sample.stop(timer(operation, "success"));
+                    })
+                    .doOnError(ex -> {
+                        sample.stop(timer(operation, "failure"));
+                        failure(operation, ex);
+                    })
+                    .doOnCancel(() -> sample.stop(timer(operation, "cancelled")));
+        });
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("travelcompanion.ai.calls")
+                .description("Model call latency")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void failure(String operation, Throwable ex) {
+        Counter.builder("travelcompanion.ai.failures")
+                .description("Model calls that threw")
+                .tag("operation", operation)
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    private void recordUsage(String operation, ChatResponse response) {
+        Usage usage = usage(response);
+        if (usage == null) {
+            return;
+        }
+        tokens(operation, "prompt", usage.getPromptTokens());
+        tokens(operation, "completion", usage.getCompletionTokens());
+    }
+
+    private void tokens(String operation, String type, Integer count) {
+        if (count == null || count <= 0) {
+            return;
+        }
+        Counter.builder("travelcompanion.ai.tokens")
+                .description("Tokens billed by the model")
+                .baseUnit("tokens")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(registry)
+                .increment(count);
+    }
+
+    private static Usage usage(ChatResponse response) {
+        if (response == null || response.getMetadata() == null) {
+            return null;
+        }
+        Usage usage = response.getMetadata().getUsage();
+        return usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0 ? usage : null;
+    }
+
+    public static Integer promptTokens(ChatResponse response) {
+        Usage usage = usage(response);
+        return usage == null ? null : usage.getPromptTokens();
+    }
+
+    public static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+}
@@ -0,0 +1,135 @@
+package dev.hafil.travelCompanion.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.hafil.travelCompanion.model.AiSuggestionCacheEntry;
+import dev.hafil.travelCompanion.repo.AiSuggestionCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache of AI suggestions keyed by
+ * {@link SuggestionInput#fingerprint()}; Caffeine evicts by W-TinyLFU, so
+ * entries asked for repeatedly outlive one-off ones.
+ * When persistence is enabled, entries are also written to the
+ * {@code ai_suggestion_cache} table so they survive restarts and are shared
+ * between instances.
+ */
+@Component
+public class AiSuggestionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AiSuggestionCache.class);
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final Cache<String, AiSuggestionResponse> cache;
+    private final AiSuggestionCacheRepository repository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration ttl;
+    private final boolean persistent;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AiSuggestionCache(
+            AiSuggestionCacheRepository repository,
+            @Value("${travelCompanion.ai.cache.max-size:1000}") long maxSize,
+            @Value("${travelCompanion.ai.cache.ttl-ms:21600000}") long ttlMs,
+            @Value("${travelCompanion.ai.cache.persistent:false}") boolean persistent) {
+        this.repository = repository;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.persistent = persistent;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public AiSuggestionResponse get(String fingerprint) {
+        AiSuggestionResponse cached = cache.getIfPresent(fingerprint);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        if (persistent) {
+            AiSuggestionResponse stored = loadPersisted(fingerprint);
+            if (stored != null) {
+                persistentHits.incrementAndGet();
+                cache.put(fingerprint, stored);
+                return stored;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * In-memory lookup that does not touch the table or the hit/miss counters.
+     */
+    public AiSuggestionResponse peek(String fingerprint) {
+        return cache.getIfPresent(fingerprint);
+    }
+
+    public void put(String fingerprint, AiSuggestionResponse response) {
+        cache.put(fingerprint, response);
+        if (persistent) {
+            try {
+                repository.save(new AiSuggestionCacheEntry(
+                        fingerprint,
+                        objectMapper.writeValueAsString(response.getPlaces()),
+                        objectMapper.writeValueAsString(response.getItems()),
+                        Instant.now()));
+            } catch (RuntimeException | JsonProcessingException ex) {
+                log.warn("Could not persist AI suggestion cache entry {}", fingerprint, ex);
+            }
+        }
+    }
+
+    private AiSuggestionResponse loadPersisted(String fingerprint) {
+        try {
+            AiSuggestionCacheEntry entry = repository.findById(fingerprint).orElse(null);
+            if (entry == null || entry.getCreatedAt().plus(ttl).isBefore(Instant.now())) {
+                return null;
+            }
+            AiSuggestionResponse response = new AiSuggestionResponse();
+            response.setPlaces(objectMapper.readValue(entry.getPlaces(), STRING_LIST));
+            response.setItems(objectMapper.readValue(entry.getItems(), STRING_LIST));
+            return response;
+        } catch (RuntimeException | JsonProcessingException ex) {
+            log.warn("Could not read AI suggestion cache entry {}", fingerprint, ex);
+            return null;
+        }
+    }
+
+    public long hitCount() {
+        return hits.get() + persistentHits.get();
+    }
+
+    public long persistentHitCount() {
+        return persistentHits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public double hitRate() {
+        long hit = hitCount();
+        long total = hit + misses.get();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -2,8 +2,12 @@ package dev.hafil.travelCompanion.ai;
 
 import dev.hafil.travelCompanion.model.Trip;
 import dev.hafil.travelCompanion.repo.TripRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/trips/{tripId}/suggest")
@@ -11,12 +15,15 @@ public class AiSuggestionController {
 
         private final TripRepository tripRepository;
         private final AiSuggestionService aiSuggestionService;
+        private final SuggestionJobService suggestionJobService;
 
         public AiSuggestionController(
                         TripRepository tripRepository,
-                        AiSuggestionService aiSuggestionService) {
+                        AiSuggestionService aiSuggestionService,
+                        SuggestionJobService suggestionJobService) {
                 this.tripRepository = tripRepository;
                 this.aiSuggestionService = aiSuggestionService;
+                this.suggestionJobService = suggestionJobService;
         }
 
         @GetMapping
@@ -25,14 +32,46 @@ public class AiSuggestionController {
                         Authentication authentication) {
                 Trip trip = getOwnedTrip(tripId, authentication);
 
-                return aiSuggestionService.generateSuggestions(
-                                trip.getName(),
-                                trip.getPlacesToVisit(),
-                                trip.getItems(),
-                                trip.getDestination(),
-                                trip.getFromDate(),
-                                trip.getToDate(),
-                                trip.getDurationDays());
+                return aiSuggestionService.generateSuggestions(SuggestionInput.from(trip), authentication.getName());
+        }
+
+        // one event per place/item as soon as the model has written it
+        @GetMapping(value = "/stream", produces = {
+                        MediaType.TEXT_EVENT_STREAM_VALUE,
+                        MediaType.APPLICATION_NDJSON_VALUE })
+        public Flux<SuggestionEvent> stream(
+                        @PathVariable Long tripId,
+                        Authentication authentication) {
+                Trip trip = getOwnedTrip(tripId, authentication);
+
+                return aiSuggestionService.streamSuggestions(SuggestionInput.from(trip), authentication.getName());
+        }
+
+        // enqueue instead of holding this thread for the whole LLM round trip
+        @PostMapping("/jobs")
+        @ResponseStatus(HttpStatus.ACCEPTED)
+        public SuggestionJob submitJob(
+                        @PathVariable Long tripId,
+                        Authentication authentication) {
+                Trip trip = getOwnedTrip(tripId, authentication);
+
+                return suggestionJobService.submit(tripId, SuggestionInput.from(trip), authentication.getName());
+        }
+
+        @GetMapping("/jobs/{jobId}")
+        public SuggestionJob getJob(
+                        @PathVariable Long tripId,
+                        @PathVariable String jobId,
+                        Authentication authentication) {
+                return suggestionJobService.getJob(tripId, jobId, authentication.getName());
+        }
+
+        @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter jobEvents(
+                        @PathVariable Long tripId,
+                        @PathVariable String jobId,
+                        Authentication authentication) {
+                return suggestionJobService.subscribe(tripId, jobId, authentication.getName());
         }
 
         private Trip getOwnedTrip(Long tripId, Authentication auth) {
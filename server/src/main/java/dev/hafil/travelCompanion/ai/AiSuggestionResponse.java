@@ -6,6 +6,8 @@ public class AiSuggestionResponse {
 
     private List<String> places;
     private List<String> items;
+    // true when the model was unavailable and these came from SuggestionFallback
+    private boolean fallback;
 
     public List<String> getPlaces() {
         return places;
@@ -22,4 +24,12 @@ public class AiSuggestionResponse {
     public void setItems(List<String> items) {
         this.items = items;
     }
+
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public void setFallback(boolean fallback) {
+        this.fallback = fallback;
+    }
 }
@@ -1,26 +1,70 @@
 package dev.hafil.travelCompanion.ai;
 
+import dev.hafil.travelCompanion.exception.AiUnavailableException;
+import dev.hafil.travelCompanion.exception.MalformedAiResponseException;
 import dev.hafil.travelCompanion.model.PlaceToVisit;
 import dev.hafil.travelCompanion.model.Item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.http.HttpStatus;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 @Service
 public class AiSuggestionService {
 
+    private static final Logger log = LoggerFactory.getLogger(AiSuggestionService.class);
+
+    // identical on every call, so providers that cache a repeated prompt prefix can reuse it
+    static final String SYSTEM_PROMPT = """
+            Act as a strict, headless JSON API. You must not include any conversational text, explanations, markdown, or formatting. Output ONLY valid JSON.
+
+            The user message describes one trip: its name, destination, dates and duration, and the places and items it already has. Long lists may end with "and N more"; those are existing entries that were not listed.
+
+            INSTRUCTIONS:
+            1. THEME ANALYSIS: Analyze the trip name to determine the intent (e.g., "Relaxing", "Adventure", "History").
+            2. FEASIBILITY CHECK: Suggest NEW places that fit the destination and theme, BUT STRICTLY LIMIT the number of suggestions to what is realistically visitable within the given duration. Do not suggest an overwhelming number of locations for a short trip.
+            3. LOGISTICS: Ensure the suggested places are geographically close enough to be visited together in the available time.
+            4. PACKING: Suggest NEW items to pack based on the theme, weather, and specific activities at these places.
+            5. DEDUPLICATION: You must strictly filter out any suggestions that appear in the existing places or existing items.
+            6. FORMATTING: Return the result in raw JSON format as defined below.
+
+            JSON SCHEMA (strictly follow this structure):
+            {
+              "places": [STRING], // Array of suggested place names
+              "items": [STRING]   // Array of suggested item names
+            }
+            """;
+
+    private static final int SYSTEM_PROMPT_TOKENS = PromptCompactor.estimateTokens(SYSTEM_PROMPT);
+
     private final ChatClient chatClient;
     private final ObjectMapper objectMapper;
-
-    public AiSuggestionService(ChatClient.Builder chatClientBuilder) {
+    private final AiSuggestionCache suggestionCache;
+    private final AiCallGuard guard;
+    private final SuggestionFallback fallback;
+    private final PromptCompactor promptCompactor;
+    private final SuggestionDeduplicator deduplicator;
+    private final SingleFlight<String, AiSuggestionResponse> singleFlight = new SingleFlight<>();
+
+    public AiSuggestionService(ChatClient.Builder chatClientBuilder, AiSuggestionCache suggestionCache,
+            AiCallGuard guard, SuggestionFallback fallback, PromptCompactor promptCompactor,
+            SuggestionDeduplicator deduplicator) {
         this.chatClient = chatClientBuilder.build();
         this.objectMapper = new ObjectMapper();
+        this.suggestionCache = suggestionCache;
+        this.guard = guard;
+        this.fallback = fallback;
+        this.promptCompactor = promptCompactor;
+        this.deduplicator = deduplicator;
     }
 
     public AiSuggestionResponse generateSuggestions(
@@ -32,78 +76,145 @@ public class AiSuggestionService {
             LocalDate toDate,
             int duration) {
 
-        String prompt = buildPrompt(tripName, tripPlaces, tripItems, destination, fromDate, toDate, duration);
+        return generateSuggestions(SuggestionInput.of(
+                tripName, tripPlaces, tripItems, destination, fromDate, toDate, duration), null);
+    }
 
-        String aiResponse = chatClient.prompt()
-                .user(prompt)
-                .call()
-                .content();
+    /**
+     * {@code username} is charged against the per-user AI rate limit; when
+     * the model is unavailable the answer comes from {@link SuggestionFallback}.
+     */
+    public AiSuggestionResponse generateSuggestions(SuggestionInput input, String username) {
+        String fingerprint = input.fingerprint();
+        AiSuggestionResponse cached = suggestionCache.get(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        // every caller is admitted and charged on its own; only the model call is shared
+        try {
+            guard.admit("suggest", username);
+        } catch (AiUnavailableException ex) {
+            return deduplicator.dedupe(fallback.suggest(input), input);
+        }
 
-        return parseResponse(aiResponse);
+        // concurrent requests for the same fingerprint share one model call
+        return singleFlight.execute(fingerprint, () -> {
+            AiSuggestionResponse fresh = suggestionCache.peek(fingerprint);
+            if (fresh != null) {
+                return fresh;
+            }
+
+            PromptCompactor.CompactPrompt prompt = promptCompactor.compact(input);
+
+            ChatResponse chatResponse;
+            try {
+                chatResponse = guard.call("suggest", null, () -> chatClient.prompt()
+                        .system(SYSTEM_PROMPT)
+                        .user(prompt.text())
+                        .call()
+                        .chatResponse());
+            } catch (AiUnavailableException ex) {
+                return deduplicator.dedupe(fallback.suggest(input), input);
+            }
+            logPromptSize("suggest", prompt, AiCallMetrics.promptTokens(chatResponse));
+
+            AiSuggestionResponse parsed;
+            try {
+                parsed = parseResponse(AiCallMetrics.text(chatResponse));
+            } catch (MalformedAiResponseException ex) {
+                return deduplicator.dedupe(fallback.suggest(input), input);
+            }
+            AiSuggestionResponse response = deduplicator.dedupe(parsed, input);
+            suggestionCache.put(fingerprint, response);
+            fallback.remember(input, response);
+            return response;
+        });
     }
 
-    private String buildPrompt(
-            String tripName,
-            List<PlaceToVisit> tripPlaces,
-            List<Item> tripItems,
-            String destination,
-            LocalDate fromDate,
-            LocalDate toDate,
-            int duration) {
+    public SingleFlight<String, AiSuggestionResponse> getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Streams suggestions one at a time as the model produces them. A cached
+     * response is replayed immediately; a fresh one is cached once the model
+     * has closed the JSON object. If the model becomes unavailable, the
+     * fallback suggestions not already sent are streamed instead.
+     */
+    public Flux<SuggestionEvent> streamSuggestions(SuggestionInput input, String username) {
+        String fingerprint = input.fingerprint();
+        AiSuggestionResponse cached = suggestionCache.get(fingerprint);
+        if (cached != null) {
+            return Flux.fromIterable(toEvents(cached));
+        }
+
+        PromptCompactor.CompactPrompt prompt = promptCompactor.compact(input);
+
+        return Flux.defer(() -> {
+            logPromptSize("suggest-stream", prompt, null);
+            // per subscription: the filters remember what has been sent
+            Predicate<String> newPlace = deduplicator.streamFilter(input.placeNames());
+            Predicate<String> newItem = deduplicator.streamFilter(input.itemNames());
+            Predicate<SuggestionEvent> isNew = event -> (SuggestionEvent.PLACE.equals(event.type()) ? newPlace : newItem)
+                    .test(event.value());
+            IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+            List<String> places = new ArrayList<>();
+            List<String> items = new ArrayList<>();
+            return guard.stream("suggest-stream", username, () -> chatClient.prompt()
+                            .system(SYSTEM_PROMPT)
+                            .user(prompt.text())
+                            .stream()
+                            .chatResponse())
+                    .mapNotNull(AiCallMetrics::text)
+                    .concatMapIterable(parser::feed)
+                    .filter(isNew)
+                    .doOnNext(event -> (SuggestionEvent.PLACE.equals(event.type()) ? places : items)
+                            .add(event.value()))
+                    .doOnComplete(() -> {
+                        if (parser.isFinished()) {
+                            AiSuggestionResponse response = new AiSuggestionResponse();
+                            response.setPlaces(places);
+                            response.setItems(items);
+                            suggestionCache.put(fingerprint, response);
+                            fallback.remember(input, response);
+                        }
+                    })
+                    .onErrorResume(AiUnavailableException.class, ex -> Flux.fromIterable(toEvents(fallback.suggest(input)))
+                            .filter(isNew));
+        });
+    }
+
+    // the estimate is what the budget works with; the model's own count shows how far off it is
+    private static void logPromptSize(String operation, PromptCompactor.CompactPrompt prompt, Integer counted) {
+        log.info("{} prompt: ~{} tokens estimated ({} system + {} trip), model counted {}; "
+                        + "{} places and {} items not listed",
+                operation, SYSTEM_PROMPT_TOKENS + prompt.estimatedTokens(), SYSTEM_PROMPT_TOKENS,
+                prompt.estimatedTokens(), counted == null ? "n/a" : counted,
+                prompt.omittedPlaces(), prompt.omittedItems());
+    }
+
+    private static List<SuggestionEvent> toEvents(AiSuggestionResponse response) {
+        List<SuggestionEvent> events = new ArrayList<>();
+        if (response.getPlaces() != null) {
+            response.getPlaces().forEach(p -> events.add(new SuggestionEvent(SuggestionEvent.PLACE, p)));
+        }
+        if (response.getItems() != null) {
+            response.getItems().forEach(i -> events.add(new SuggestionEvent(SuggestionEvent.ITEM, i)));
+        }
+        return events;
+    }
 
-        return """
-                Act as a strict, headless JSON API. You must not include any conversational text, explanations, markdown, or formatting. Output ONLY valid JSON.
-
-                INPUT DATA:
-                - Trip Name: %s
-                - Destination: %s
-                - Start Date: %s
-                - End Date: %s
-                - Duration: %d days
-                - Existing Places (Exclude these): %s
-                - Existing Items (Exclude these): %s
-
-                INSTRUCTIONS:
-                1. THEME ANALYSIS: Analyze the "Trip Name" to determine the intent (e.g., "Relaxing", "Adventure", "History").
-                2. FEASIBILITY CHECK: Suggest NEW places that fit the destination and theme, BUT STRICTLY LIMIT the number of suggestions to what is realistically visitable within the given "Duration". Do not suggest an overwhelming number of locations for a short trip.
-                3. LOGISTICS: Ensure the suggested places are geographically close enough to be visited together in the available time.
-                4. PACKING: Suggest NEW items to pack based on the theme, weather, and specific activities at these places.
-                5. DEDUPLICATION: You must strictly filter out any suggestions that appear in the "Existing Places" or "Existing Items" lists.
-                6. FORMATTING: Return the result in raw JSON format as defined below.
-
-                JSON SCHEMA:(Strictly follo this structure)
-                {
-                  "places": [STRING], // Array of suggested place names
-                  "items": [STRING]   // Array of suggested item names
-                }
-                EXAMPLE OUTPUT:
-                {
-                  "places": [
-                    "String",
-                    "String"
-                  ],
-                  "items": [
-                    "String",
-                    "String"
-                  ]
-                }
-                """
-                .formatted(
-                        tripName,
-                        destination,
-                        fromDate,
-                        toDate,
-                        duration,
-                        tripPlaces.stream().map(PlaceToVisit::getName).toList(),
-                        tripItems.stream().map(Item::getName).toList());
+    // the per-trip part; the instructions travel separately as SYSTEM_PROMPT
+    String buildPrompt(SuggestionInput input) {
+        return promptCompactor.compact(input).text();
     }
 
-    private AiSuggestionResponse parseResponse(String aiResponse) {
+    AiSuggestionResponse parseResponse(String aiResponse) {
         try {
             return objectMapper.readValue(aiResponse, AiSuggestionResponse.class);
         } catch (Exception ex) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "Failed to parse AI response into AiSuggestionResponse");
+            throw new MalformedAiResponseException("Failed to parse AI response into AiSuggestionResponse");
         }
     }
 }
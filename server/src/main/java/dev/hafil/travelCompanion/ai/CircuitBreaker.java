@@ -0,0 +1,129 @@
+package dev.hafil.travelCompanion.ai;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold}
+ * failures in a row the circuit opens and calls are refused for
+ * {@code openMs}; then a single trial call is let through (half-open),
+ * whose outcome closes or re-opens it. Outcomes of calls admitted before
+ * the last state change are ignored.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /** One admitted call; {@code trial} is set for the single call let through while half-open. */
+    public record Permit(long generation, boolean trial) {
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final BiConsumer<State, State> onTransition;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    // moves on every transition, so only permits issued in the current state can change it
+    private long generation;
+
+    public CircuitBreaker(int failureThreshold, long openMs, BiConsumer<State, State> onTransition) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.onTransition = onTransition;
+    }
+
+    /**
+     * Read-only check for callers that want to skip other work (rate
+     * limiting, queueing) when the call would be refused anyway.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.nanoTime() - openedAt >= openNanos;
+            case HALF_OPEN -> !trialInFlight;
+        };
+    }
+
+    /**
+     * Claims permission for one call, or returns null when it is refused.
+     * Every permit must be handed back to exactly one of
+     * {@link #onSuccess}, {@link #onFailure} or {@link #release}.
+     */
+    public synchronized Permit tryAcquire() {
+        if (!isCallPermitted()) {
+            return null;
+        }
+        if (state == State.OPEN) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    public synchronized void onSuccess(Permit permit) {
+        if (!isCurrent(permit)) {
+            // a call admitted before the circuit last moved says nothing about the model now
+            return;
+        }
+        if (permit.trial()) {
+            trialInFlight = false;
+            transition(State.CLOSED);
+        }
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure(Permit permit) {
+        if (!isCurrent(permit)) {
+            return;
+        }
+        if (permit.trial()) {
+            trialInFlight = false;
+            open();
+        } else if (++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    // the call ended without a verdict on the model, e.g. the client went away
+    public synchronized void release(Permit permit) {
+        if (isCurrent(permit) && permit.trial()) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    // whole seconds until a trial call is allowed, for a Retry-After hint
+    public synchronized long secondsUntilTrial() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long remaining = openNanos - (System.nanoTime() - openedAt);
+        return Math.max(0, (long) Math.ceil(remaining / 1_000_000_000.0));
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        consecutiveFailures = 0;
+        transition(State.OPEN);
+    }
+
+    private boolean isCurrent(Permit permit) {
+        return permit.generation() == generation;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        generation++;
+        onTransition.accept(from, to);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.hafil.travelCompanion.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import dev.hafil.travelCompanion.exception.MalformedAiResponseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Push parser for the {@code {"places": [...], "items": [...]}} response,
+ * fed with streamed chunks of model output. Each array element is emitted
+ * as soon as its closing quote arrives. Anything before the first '{' or
+ * after the matching '}' (such as markdown fences) is ignored.
+ * Not thread-safe; use one instance per stream.
+ */
+public class IncrementalSuggestionParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String field;
+
+    public IncrementalSuggestionParser() {
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    public List<SuggestionEvent> feed(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return List.of();
+        }
+        String text = chunk;
+        if (!started) {
+            int start = text.indexOf('{');
+            if (start < 0) {
+                return List.of();
+            }
+            text = text.substring(start);
+            started = true;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        List<SuggestionEvent> events = new ArrayList<>();
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> depth++;
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        finished = depth == 0;
+                    }
+                    case FIELD_NAME -> {
+                        if (depth == 1) {
+                            field = parser.currentName();
+                        }
+                    }
+                    case VALUE_STRING -> {
+                        if (depth == 2 && "places".equals(field)) {
+                            events.add(new SuggestionEvent(SuggestionEvent.PLACE, parser.getText()));
+                        } else if (depth == 2 && "items".equals(field)) {
+                            events.add(new SuggestionEvent(SuggestionEvent.ITEM, parser.getText()));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new MalformedAiResponseException("Failed to parse streamed AI response");
+        }
+        return events;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
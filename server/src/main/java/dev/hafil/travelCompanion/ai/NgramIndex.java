@@ -0,0 +1,201 @@
+package dev.hafil.travelCompanion.ai;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Names indexed by their character trigrams, for finding near-duplicates:
+ * two names match when their normalized forms are equal or the Jaccard
+ * similarity of their trigram sets reaches {@code threshold}. Names are
+ * normalized to lower-case letters and digits with a trailing plural "s"
+ * dropped from each word, so "Sun screen", "sunscreen" and "Sunscreens"
+ * are the same name and "Tooth brushes" is close to "Toothbrush".
+ * Lookups only touch entries that share a trigram with the query. Not
+ * thread-safe; build one per request.
+ */
+public class NgramIndex {
+
+    private final double threshold;
+    private int[] gramCounts = new int[16];
+    private int size;
+
+    // open-addressing map from packed trigram to its postings list; 0 marks a free slot
+    private long[] gramKeys = new long[64];
+    private int[][] postings = new int[64][];
+    private int gramSlotsUsed;
+
+    // per-call scratch space: the normalized name, its trigrams, overlap per entry and which entries were touched
+    private char[] key = new char[64];
+    private long[] grams = new long[64];
+    private int[] overlap = new int[16];
+    private int[] touched = new int[16];
+
+    public NgramIndex(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /** Adds a name and returns its id, or -1 if it has no letters or digits. */
+    public int add(String name) {
+        int gramCount = grams(name);
+        if (gramCount == 0) {
+            return -1;
+        }
+        int id = size++;
+        if (id == gramCounts.length) {
+            gramCounts = Arrays.copyOf(gramCounts, id * 2);
+            overlap = Arrays.copyOf(overlap, id * 2);
+        }
+        gramCounts[id] = gramCount;
+        for (int g = 0; g < gramCount; g++) {
+            int slot = slot(grams[g]);
+            if (gramKeys[slot] == 0) {
+                gramKeys[slot] = grams[g];
+                postings[slot] = new int[4];
+                if (++gramSlotsUsed * 2 > gramKeys.length) {
+                    growGramTable();
+                    slot = slot(grams[g]);
+                }
+            }
+            // element 0 of a postings list is its length
+            int[] list = postings[slot];
+            if (list[0] + 1 == list.length) {
+                list = postings[slot] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[++list[0]] = id;
+        }
+        return id;
+    }
+
+    public boolean hasMatch(String name) {
+        boolean[] found = {false};
+        forEachMatch(name, id -> found[0] = true);
+        return found[0];
+    }
+
+    /** Calls {@code action} with the id of every indexed name similar to {@code name}. */
+    public void forEachMatch(String name, IntConsumer action) {
+        int gramCount = grams(name);
+        int touchedCount = 0;
+        for (int g = 0; g < gramCount; g++) {
+            int[] list = postings[slot(grams[g])];
+            if (list == null) {
+                continue;
+            }
+            for (int i = 1; i <= list[0]; i++) {
+                int id = list[i];
+                if (overlap[id]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            int shared = overlap[id];
+            overlap[id] = 0;
+            // equal keys share every trigram, so they always pass
+            if ((double) shared / (gramCount + gramCounts[id] - shared) >= threshold) {
+                action.accept(id);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the normalized name into {@link #key} and returns its length.
+     * Runs for every name on the trip, so ASCII skips the Unicode tables.
+     */
+    private int normalize(String name) {
+        if (name == null) {
+            return 0;
+        }
+        if (key.length < name.length()) {
+            key = new char[name.length() * 2];
+        }
+        int length = 0;
+        int wordStart = 0;
+        for (int i = 0; i <= name.length(); i++) {
+            char c = i < name.length() ? name.charAt(i) : ' ';
+            if (c < 128) {
+                if (c >= 'A' && c <= 'Z') {
+                    key[length++] = (char) (c + ('a' - 'A'));
+                    continue;
+                }
+                if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9') {
+                    key[length++] = c;
+                    continue;
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                key[length++] = Character.toLowerCase(c);
+                continue;
+            }
+            // end of a word: "boots" -> "boot", but "glass" and "gas" stay
+            if (length - wordStart > 3 && key[length - 1] == 's' && key[length - 2] != 's') {
+                length--;
+            }
+            wordStart = length;
+        }
+        return length;
+    }
+
+    /**
+     * Fills {@link #grams} with the name's distinct trigrams packed into
+     * longs (never 0, which marks a free slot) and returns how many there
+     * are. Names under three characters are one gram; empty names have none.
+     */
+    private int grams(String name) {
+        int length = normalize(name);
+        if (length < 3) {
+            if (length == 0) {
+                return 0;
+            }
+            long gram = (long) length << 48 | (long) key[0] << 16;
+            grams[0] = length == 2 ? gram | key[1] : gram;
+            return 1;
+        }
+        int count = length - 2;
+        if (count > grams.length) {
+            grams = new long[count * 2];
+        }
+        for (int i = 0; i < count; i++) {
+            grams[i] = (long) key[i] << 32 | (long) key[i + 1] << 16 | key[i + 2];
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct;
+    }
+
+    // linear probing; the table is kept at most half full
+    private int slot(long gram) {
+        int mask = gramKeys.length - 1;
+        int slot = (int) (gram * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while (gramKeys[slot] != 0 && gramKeys[slot] != gram) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growGramTable() {
+        long[] oldKeys = gramKeys;
+        int[][] oldPostings = postings;
+        gramKeys = new long[oldKeys.length * 2];
+        postings = new int[oldKeys.length * 2][];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                gramKeys[slot] = oldKeys[i];
+                postings[slot] = oldPostings[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the per-trip part of the suggestion prompt. Place and item names
+ * are trimmed, whitespace-collapsed and deduplicated case-insensitively,
+ * then listed only up to {@code max-list-tokens} (estimated locally); the
+ * rest are summarised as a count. Because the model may then suggest a
+ * name it was not shown, its answer is filtered against the full lists
+ * by {@link SuggestionDeduplicator}.
+ */
+@Component
+public class PromptCompactor {
+
+    public record CompactPrompt(String text, int estimatedTokens, int omittedPlaces, int omittedItems) {}
+
+    private record Fitted(List<String> names, int tokens) {}
+
+    private static final String SEPARATOR = "; ";
+
+    private final int maxListTokens;
+    private final int maxNameLength;
+
+    public PromptCompactor(
+            @Value("${travelCompanion.ai.prompt.max-list-tokens:1000}") int maxListTokens,
+            @Value("${travelCompanion.ai.prompt.max-name-length:60}") int maxNameLength) {
+        this.maxListTokens = maxListTokens;
+        this.maxNameLength = maxNameLength;
+    }
+
+    public CompactPrompt compact(SuggestionInput input) {
+        List<String> places = normalize(input.placeNames());
+        List<String> items = normalize(input.itemNames());
+
+        // places get half the budget first; whatever either list leaves unused goes to the other
+        Fitted shownPlaces = fit(places, maxListTokens / 2);
+        Fitted shownItems = fit(items, maxListTokens - shownPlaces.tokens());
+        if (shownPlaces.names().size() < places.size()) {
+            shownPlaces = fit(places, maxListTokens - shownItems.tokens());
+        }
+
+        String text = """
+                Trip name: %s
+                Destination: %s
+                Dates: %s to %s (%d days)
+                Existing places, do not suggest: %s
+                Existing items, do not suggest: %s
+                """.formatted(
+                input.tripName(),
+                input.destination(),
+                input.fromDate(),
+                input.toDate(),
+                input.duration(),
+                list(shownPlaces.names(), places.size()),
+                list(shownItems.names(), items.size()));
+        return new CompactPrompt(text, estimateTokens(text),
+                places.size() - shownPlaces.names().size(),
+                items.size() - shownItems.names().size());
+    }
+
+    private List<String> normalize(List<String> names) {
+        Map<String, String> unique = new LinkedHashMap<>();
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String clean = collapse(name);
+            if (clean.length() > maxNameLength) {
+                clean = clean.substring(0, maxNameLength);
+            }
+            unique.putIfAbsent(clean.toLowerCase(Locale.ROOT), clean);
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    private static Fitted fit(List<String> names, int budget) {
+        List<String> shown = new ArrayList<>();
+        int used = 0;
+        for (String name : names) {
+            int cost = estimateTokens(name) + 1;
+            if (used + cost > budget) {
+                break;
+            }
+            shown.add(name);
+            used += cost;
+        }
+        return new Fitted(shown, used);
+    }
+
+    private static String list(List<String> shown, int total) {
+        if (total == 0) {
+            return "none";
+        }
+        String listed = String.join(SEPARATOR, shown);
+        if (shown.size() == total) {
+            return listed;
+        }
+        return (listed.isEmpty() ? "" : listed + SEPARATOR) + "and " + (total - shown.size()) + " more";
+    }
+
+    // strip() plus runs of whitespace to one space, without a regex: this runs for every name on the trip
+    private static String collapse(String name) {
+        String stripped = name.strip();
+        StringBuilder sb = null;
+        boolean inSpace = false;
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            boolean space = Character.isWhitespace(c);
+            if (sb == null && (space && (inSpace || c != ' '))) {
+                sb = new StringBuilder(stripped.length()).append(stripped, 0, i);
+            }
+            if (sb != null && !(space && inSpace)) {
+                sb.append(space ? ' ' : c);
+            }
+            inSpace = space;
+        }
+        return sb == null ? stripped : sb.toString();
+    }
+
+    /**
+     * Rough BPE-style count: one token per started four characters of each
+     * word and one per punctuation mark. Close enough to budget with, and
+     * needs no vocabulary file.
+     */
+    public static int estimateTokens(String text) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Drops suggestions that are near-duplicates of something already on the
+ * trip, or of an earlier suggestion in the same answer, using
+ * {@link NgramIndex}. The model is told what to exclude, but it misses
+ * spelling variants ("Sunscreen" vs "sun screen"), and with compacted
+ * prompts it is not even shown every name.
+ */
+@Component
+public class SuggestionDeduplicator {
+
+    private final double threshold;
+
+    public SuggestionDeduplicator(
+            @Value("${travelCompanion.ai.dedup.similarity-threshold:0.75}") double threshold) {
+        this.threshold = threshold;
+    }
+
+    public AiSuggestionResponse dedupe(AiSuggestionResponse response, SuggestionInput input) {
+        response.setPlaces(dedupe(response.getPlaces(), input.placeNames()));
+        response.setItems(dedupe(response.getItems(), input.itemNames()));
+        return response;
+    }
+
+    /**
+     * Indexes the suggestions rather than the existing names: an answer has
+     * tens of entries and a trip can have thousands, so each existing name
+     * is normalized once and only probes a small index.
+     */
+    public List<String> dedupe(List<String> suggestions, List<String> existing) {
+        if (suggestions == null || suggestions.isEmpty()) {
+            return List.of();
+        }
+        NgramIndex index = new NgramIndex(threshold);
+        List<String> kept = new ArrayList<>();
+        for (String suggestion : suggestions) {
+            if (suggestion != null && !index.hasMatch(suggestion) && index.add(suggestion) >= 0) {
+                kept.add(suggestion.strip());
+            }
+        }
+        BitSet dropped = new BitSet(kept.size());
+        for (String name : existing) {
+            index.forEachMatch(name, dropped::set);
+        }
+        if (dropped.isEmpty()) {
+            return kept;
+        }
+        List<String> fresh = new ArrayList<>(kept.size() - dropped.cardinality());
+        for (int i = dropped.nextClearBit(0); i < kept.size(); i = dropped.nextClearBit(i + 1)) {
+            fresh.add(kept.get(i));
+        }
+        return fresh;
+    }
+
+    /**
+     * For suggestions arriving one at a time: accepts a suggestion unless it
+     * is close to an existing name or to one accepted before. Each call
+     * returns a new, single-threaded filter.
+     */
+    public Predicate<String> streamFilter(List<String> existing) {
+        NgramIndex index = new NgramIndex(threshold);
+        existing.forEach(index::add);
+        return suggestion -> suggestion != null && !index.hasMatch(suggestion) && index.add(suggestion) >= 0;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.hafil.travelCompanion.ai;
+
+/**
+ * One suggestion as soon as the model has finished writing it.
+ * {@code type} is either {@code "place"} or {@code "item"}.
+ */
+public record SuggestionEvent(String type, String value) {
+
+    public static final String PLACE = "place";
+    public static final String ITEM = "item";
+}
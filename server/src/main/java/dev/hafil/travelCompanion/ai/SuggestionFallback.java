@@ -0,0 +1,123 @@
+package dev.hafil.travelCompanion.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Suggestions for when the model cannot be reached. The last model
+ * answer for the same destination is reused if it still has anything the
+ * trip does not; otherwise a packing list is put together from the trip's
+ * dates, length and name. Fallback answers are never cached.
+ */
+@Component
+public class SuggestionFallback {
+
+    private static final List<String> ESSENTIALS = List.of(
+            "Passport or ID", "Phone charger", "Toiletries", "Medication", "Reusable water bottle");
+
+    private final Cache<String, AiSuggestionResponse> byDestination;
+    private final MeterRegistry registry;
+
+    public SuggestionFallback(
+            MeterRegistry registry,
+            @Value("${travelCompanion.ai.cache.max-size:1000}") long maxSize,
+            @Value("${travelCompanion.ai.cache.ttl-ms:21600000}") long ttlMs) {
+        this.registry = registry;
+        this.byDestination = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    public void remember(SuggestionInput input, AiSuggestionResponse response) {
+        if (input.destination() != null) {
+            byDestination.put(key(input.destination()), response);
+        }
+    }
+
+    public AiSuggestionResponse suggest(SuggestionInput input) {
+        AiSuggestionResponse known = input.destination() == null ? null : byDestination.getIfPresent(key(input.destination()));
+        if (known != null) {
+            AiSuggestionResponse reused = response(
+                    without(known.getPlaces(), input.placeNames()),
+                    without(known.getItems(), input.itemNames()));
+            if (!reused.getPlaces().isEmpty() || !reused.getItems().isEmpty()) {
+                count("destination");
+                return reused;
+            }
+        }
+        count("heuristic");
+        return response(List.of(), without(packingList(input), input.itemNames()));
+    }
+
+    private static List<String> packingList(SuggestionInput input) {
+        Set<String> items = new LinkedHashSet<>(ESSENTIALS);
+        if (input.fromDate() != null) {
+            Month month = input.fromDate().getMonth();
+            switch (month) {
+                case JUNE, JULY, AUGUST -> items.addAll(List.of("Sunscreen", "Sunglasses", "Hat"));
+                case DECEMBER, JANUARY, FEBRUARY -> items.addAll(List.of("Warm jacket", "Gloves", "Scarf"));
+                default -> items.addAll(List.of("Light rain jacket", "Umbrella"));
+            }
+        }
+        if (input.duration() > 7) {
+            items.add("Laundry bag");
+        }
+        String name = input.tripName() == null ? "" : input.tripName().toLowerCase(Locale.ROOT);
+        if (name.contains("beach") || name.contains("sea") || name.contains("island")) {
+            items.addAll(List.of("Swimsuit", "Beach towel"));
+        }
+        if (name.contains("hik") || name.contains("mountain") || name.contains("adventure")) {
+            items.addAll(List.of("Hiking boots", "First aid kit"));
+        }
+        if (name.contains("business") || name.contains("work") || name.contains("conference")) {
+            items.addAll(List.of("Laptop and charger", "Business attire"));
+        }
+        return new ArrayList<>(items);
+    }
+
+    private static List<String> without(List<String> suggestions, List<String> existing) {
+        if (suggestions == null) {
+            return List.of();
+        }
+        // names are nullable on both sides: trip rows in the schema, answers in the model's JSON
+        Set<String> taken = new LinkedHashSet<>();
+        existing.stream().filter(Objects::nonNull).forEach(name -> taken.add(name.toLowerCase(Locale.ROOT)));
+        return suggestions.stream()
+                .filter(s -> s != null && !taken.contains(s.toLowerCase(Locale.ROOT)))
+                .toList();
+    }
+
+    private static AiSuggestionResponse response(List<String> places, List<String> items) {
+        AiSuggestionResponse response = new AiSuggestionResponse();
+        response.setPlaces(places);
+        response.setItems(items);
+        response.setFallback(true);
+        return response;
+    }
+
+    private void count(String source) {
+        Counter.builder("travelcompanion.ai.fallbacks")
+                .description("Suggestions served without the model, by source")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    private static String key(String destination) {
+        return destination.trim().toLowerCase(Locale.ROOT);
+    }
+}
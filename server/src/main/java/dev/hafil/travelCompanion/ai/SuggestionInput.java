@@ -0,0 +1,80 @@
+package dev.hafil.travelCompanion.ai;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.PlaceToVisit;
+import dev.hafil.travelCompanion.model.Trip;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Everything the suggestion prompt is built from, detached from the
+ * persistence context so it can be hashed, cached or handed to another thread.
+ */
+public record SuggestionInput(
+        String tripName,
+        String destination,
+        LocalDate fromDate,
+        LocalDate toDate,
+        int duration,
+        List<String> placeNames,
+        List<String> itemNames) {
+
+    /**
+     * Part of every fingerprint. Bump it whenever the prompt, the response
+     * schema or the post-processing of answers changes, so that cached and
+     * persisted answers from the old version stop matching.
+     */
+    static final int PROMPT_VERSION = 2;
+
+    // names are nullable in the schema; a nameless row tells the model nothing
+    public SuggestionInput {
+        placeNames = placeNames.stream().filter(Objects::nonNull).toList();
+        itemNames = itemNames.stream().filter(Objects::nonNull).toList();
+    }
+
+    public static SuggestionInput from(Trip trip) {
+        return of(trip.getName(), trip.getPlacesToVisit(), trip.getItems(), trip.getDestination(),
+                trip.getFromDate(), trip.getToDate(), trip.getDurationDays());
+    }
+
+    public static SuggestionInput of(
+            String tripName,
+            List<PlaceToVisit> tripPlaces,
+            List<Item> tripItems,
+            String destination,
+            LocalDate fromDate,
+            LocalDate toDate,
+            int duration) {
+        return new SuggestionInput(tripName, destination, fromDate, toDate, duration,
+                tripPlaces.stream().map(PlaceToVisit::getName).toList(),
+                tripItems.stream().map(Item::getName).toList());
+    }
+
+    /**
+     * Stable SHA-256 over the prompt version and inputs. Names are sorted so
+     * that the same set of places and items always maps to the same key.
+     */
+    public String fingerprint() {
+        StringBuilder sb = new StringBuilder()
+                .append('v').append(PROMPT_VERSION).append('\n')
+                .append(tripName).append('\n')
+                .append(destination).append('\n')
+                .append(fromDate).append('\n')
+                .append(toDate).append('\n')
+                .append(duration).append('\n');
+        placeNames.stream().sorted().forEach(n -> sb.append("p:").append(n).append('\n'));
+        itemNames.stream().sorted().forEach(n -> sb.append("i:").append(n).append('\n'));
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
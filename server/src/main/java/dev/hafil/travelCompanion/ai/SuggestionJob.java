@@ -0,0 +1,76 @@
+package dev.hafil.travelCompanion.ai;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of one queued suggestion request. Fields are written by the worker
+ * thread and read by polling requests, hence volatile.
+ */
+public class SuggestionJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long tripId;
+    private final String username;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile AiSuggestionResponse result;
+    private volatile String error;
+
+    public SuggestionJob(Long tripId, String username) {
+        this.tripId = tripId;
+        this.username = username;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    @JsonIgnore
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public AiSuggestionResponse getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void complete(AiSuggestionResponse result) {
+        this.result = result;
+        status = Status.DONE;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        status = Status.FAILED;
+    }
+}
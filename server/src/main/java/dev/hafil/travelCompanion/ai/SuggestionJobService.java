@@ -0,0 +1,171 @@
+package dev.hafil.travelCompanion.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.hafil.travelCompanion.exception.ResourceNotFoundException;
+import dev.hafil.travelCompanion.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs suggestion requests off the servlet threads. At most
+ * {@code max-in-flight} LLM calls run at once and at most
+ * {@code queue-capacity} wait behind them; anything beyond that is
+ * rejected with 429 instead of piling up.
+ */
+@Service
+public class SuggestionJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionJobService.class);
+
+    private final AiSuggestionService aiSuggestionService;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, SuggestionJob> jobs;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final long sseTimeoutMs;
+
+    public SuggestionJobService(
+            AiSuggestionService aiSuggestionService,
+            @Value("${travelCompanion.ai.jobs.max-in-flight:4}") int maxInFlight,
+            @Value("${travelCompanion.ai.jobs.queue-capacity:50}") int queueCapacity,
+            @Value("${travelCompanion.ai.jobs.ttl-ms:600000}") long jobTtlMs,
+            @Value("${travelCompanion.ai.jobs.sse-timeout-ms:120000}") long sseTimeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.aiSuggestionService = aiSuggestionService;
+        this.sseTimeoutMs = sseTimeoutMs;
+        // the pool size is the in-flight limit, so even virtual workers stay pooled
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("ai-suggest-", 1).factory()
+                : Thread.ofPlatform().name("ai-suggest-", 1).daemon().factory();
+        this.executor = new ThreadPoolExecutor(
+                maxInFlight, maxInFlight,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jobTtlMs))
+                .build();
+    }
+
+    public SuggestionJob submit(Long tripId, SuggestionInput input, String username) {
+        SuggestionJob job = new SuggestionJob(tripId, username);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, input));
+        } catch (RejectedExecutionException ex) {
+            jobs.invalidate(job.getId());
+            throw new TooManyRequestsException("Too many suggestion requests in progress, try again shortly");
+        }
+        return job;
+    }
+
+    public SuggestionJob getJob(Long tripId, String jobId, String username) {
+        SuggestionJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.getTripId().equals(tripId) || !job.getUsername().equals(username)) {
+            throw new ResourceNotFoundException("Suggestion job not found");
+        }
+        return job;
+    }
+
+    /**
+     * Sends the current state, then every change until the job finishes.
+     * State changes are published under the job's lock, so a subscriber
+     * sees each one exactly once and the terminal event only once.
+     */
+    public SseEmitter subscribe(Long tripId, String jobId, String username) {
+        SuggestionJob job = getJob(tripId, jobId, username);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        synchronized (job) {
+            if (!job.isFinished()) {
+                subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+                emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+                emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+                emitter.onError(e -> unsubscribe(jobId, emitter));
+            }
+            send(emitter, job);
+        }
+        return emitter;
+    }
+
+    private void unsubscribe(String jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int inFlight() {
+        return executor.getActiveCount();
+    }
+
+    private void run(SuggestionJob job, SuggestionInput input) {
+        synchronized (job) {
+            job.markRunning();
+            publish(job);
+        }
+        AiSuggestionResponse result = null;
+        String error = null;
+        try {
+            result = aiSuggestionService.generateSuggestions(input, job.getUsername());
+        } catch (Exception ex) {
+            log.warn("Suggestion job {} for trip {} failed", job.getId(), job.getTripId(), ex);
+            error = ex.getMessage();
+        }
+        synchronized (job) {
+            if (error == null) {
+                job.complete(result);
+            } else {
+                job.fail(error);
+            }
+            publish(job);
+            subscribers.remove(job.getId());
+        }
+    }
+
+    private void publish(SuggestionJob job) {
+        List<SseEmitter> list = subscribers.get(job.getId());
+        if (list != null) {
+            list.forEach(emitter -> send(emitter, job));
+        }
+    }
+
+    private void send(SseEmitter emitter, SuggestionJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(job.getId())
+                    .name(job.getStatus().name().toLowerCase())
+                    .data(job));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
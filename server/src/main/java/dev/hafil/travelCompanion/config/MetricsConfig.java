@@ -0,0 +1,145 @@
+package dev.hafil.travelCompanion.config;
+
+import dev.hafil.travelCompanion.ai.AiCallGuard;
+import dev.hafil.travelCompanion.ai.AiSuggestionCache;
+import dev.hafil.travelCompanion.ai.AiSuggestionService;
+import dev.hafil.travelCompanion.ai.SingleFlight;
+import dev.hafil.travelCompanion.ai.SuggestionJobService;
+import dev.hafil.travelCompanion.security.JwtPrincipalCache;
+import dev.hafil.travelCompanion.security.PasswordHashingService;
+import dev.hafil.travelCompanion.security.UsernameIndex;
+import dev.hafil.travelCompanion.service.TripETagService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the counters the caches and queues already keep as meters, so
+ * they show up next to the request, repository and Hibernate metrics that
+ * Spring Boot records on its own. Nothing here is counted twice; the
+ * meters read the existing values at scrape time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder conditionalGetMetrics(TripETagService tripETagService) {
+        return registry -> {
+            FunctionCounter.builder("travelcompanion.etag.responses", tripETagService,
+                            TripETagService::notModifiedCount)
+                    .description("Trip, item and place reads by conditional GET result")
+                    .tag("result", "not_modified")
+                    .register(registry);
+            FunctionCounter.builder("travelcompanion.etag.responses", tripETagService,
+                            TripETagService::servedCount)
+                    .description("Trip, item and place reads by conditional GET result")
+                    .tag("result", "served")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder aiSuggestionMetrics(AiSuggestionCache suggestionCache, AiSuggestionService suggestionService,
+            SuggestionJobService jobService) {
+        return registry -> {
+            FunctionCounter.builder("travelcompanion.ai.cache.requests", suggestionCache,
+                            c -> c.hitCount() - c.persistentHitCount())
+                    .description("Suggestion cache lookups by result")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("travelcompanion.ai.cache.requests", suggestionCache,
+                            AiSuggestionCache::persistentHitCount)
+                    .description("Suggestion cache lookups by result")
+                    .tag("result", "persistent_hit")
+                    .register(registry);
+            FunctionCounter.builder("travelcompanion.ai.cache.requests", suggestionCache,
+                            AiSuggestionCache::missCount)
+                    .description("Suggestion cache lookups by result")
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("travelcompanion.ai.cache.size", suggestionCache, AiSuggestionCache::size)
+                    .description("Suggestions held in memory")
+                    .register(registry);
+
+            SingleFlight<String, ?> singleFlight = suggestionService.getSingleFlight();
+            FunctionCounter.builder("travelcompanion.ai.singleflight.calls", singleFlight,
+                            SingleFlight::leaderCount)
+                    .description("Suggestion calls that reached the model vs. joined one in flight")
+                    .tag("role", "leader")
+                    .register(registry);
+            FunctionCounter.builder("travelcompanion.ai.singleflight.calls", singleFlight,
+                            SingleFlight::followerCount)
+                    .description("Suggestion calls that reached the model vs. joined one in flight")
+                    .tag("role", "follower")
+                    .register(registry);
+
+            Gauge.builder("travelcompanion.ai.jobs.queued", jobService, SuggestionJobService::queueDepth)
+                    .description("Suggestion jobs waiting for a worker")
+                    .register(registry);
+            Gauge.builder("travelcompanion.ai.jobs.in_flight", jobService, SuggestionJobService::inFlight)
+                    .description("Suggestion jobs running against the model")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder aiGuardMetrics(AiCallGuard guard) {
+        return registry -> {
+            Gauge.builder("travelcompanion.ai.circuit.state", guard, g -> g.circuitState().ordinal())
+                    .description("AI circuit breaker state: 0 closed, 1 half-open, 2 open")
+                    .register(registry);
+            Gauge.builder("travelcompanion.ai.bulkhead.in_use", guard, AiCallGuard::slotsInUse)
+                    .description("Model calls holding one of the max-concurrent slots")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder principalCacheMetrics(JwtPrincipalCache principalCache) {
+        return registry -> {
+            FunctionCounter.builder("travelcompanion.jwt.principal_cache.requests", principalCache,
+                            JwtPrincipalCache::hitCount)
+                    .description("Principal cache lookups by result")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("travelcompanion.jwt.principal_cache.requests", principalCache,
+                            JwtPrincipalCache::missCount)
+                    .description("Principal cache lookups by result")
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("travelcompanion.jwt.principal_cache.size", principalCache, JwtPrincipalCache::size)
+                    .description("Verified tokens held in memory")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashing) {
+        return registry -> {
+            Gauge.builder("travelcompanion.password.hash.queued", passwordHashing, PasswordHashingService::queueDepth)
+                    .description("Password hashes waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("travelcompanion.password.hash.in_flight", passwordHashing, PasswordHashingService::inFlight)
+                    .description("Password hashes running")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder usernameIndexMetrics(UsernameIndex usernameIndex) {
+        return registry -> {
+            FunctionCounter.builder("travelcompanion.username_index.lookups", usernameIndex,
+                            UsernameIndex::negativeCount)
+                    .description("Username availability checks by index answer; only maybe_taken reaches the database")
+                    .tag("result", "free")
+                    .register(registry);
+            FunctionCounter.builder("travelcompanion.username_index.lookups", usernameIndex,
+                            UsernameIndex::positiveCount)
+                    .description("Username availability checks by index answer; only maybe_taken reaches the database")
+                    .tag("result", "maybe_taken")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package dev.hafil.travelCompanion.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Opt-in Hibernate second-level cache for users and trips, held in bounded
+ * in-process Caffeine caches. Hibernate keeps the regions consistent with
+ * writes made through this instance only; with several instances, set the
+ * TTL to the staleness you can accept.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "travelCompanion.l2-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String USERS = "users";
+    public static final String TRIPS = "trips";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    public static final List<String> REGIONS = List.of(USERS, TRIPS, USERS_BY_USERNAME,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(
+            @Value("${travelCompanion.l2-cache.max-size:10000}") long maxSize,
+            @Value("${travelCompanion.l2-cache.ttl-ms:600000}") long ttlMs) {
+        // a private manager per context, so tests that boot several contexts don't share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("travelCompanion-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        OptionalLong ttlNanos = OptionalLong.of(Duration.ofMillis(ttlMs).toNanos());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            config.setMaximumSize(OptionalLong.of(maxSize));
+            config.setExpireAfterWrite(ttlNanos);
+            cacheManager.createCache(region, config);
+        }
+        // must never lose entries before the query results they guard, so it is unbounded
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+}
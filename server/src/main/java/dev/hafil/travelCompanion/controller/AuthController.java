@@ -1,6 +1,7 @@
 package dev.hafil.travelCompanion.controller;
 
 import dev.hafil.travelCompanion.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -18,16 +19,16 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> register(@RequestBody Map<String, String> body, HttpServletRequest request) {
         return ResponseEntity.ok(
-                authService.register(body.get("username"), body.get("password"))
+                authService.register(body.get("username"), body.get("password"), request.getRemoteAddr())
         );
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> body, HttpServletRequest request) {
         return ResponseEntity.ok(
-                authService.login(body.get("username"), body.get("password"))
+                authService.login(body.get("username"), body.get("password"), request.getRemoteAddr())
         );
     }
 
@@ -47,12 +48,12 @@ public class AuthController {
             @RequestBody Map<String, String> body,
             Authentication auth
     ) {
-        authService.changePassword(
+        String token = authService.changePassword(
                 auth.getName(),
                 body.get("oldPassword"),
                 body.get("newPassword")
         );
-        return ResponseEntity.ok(Map.of("message", "Password updated"));
+        return ResponseEntity.ok(Map.of("message", "Password updated", "token", token));
     }
 }
 
@@ -2,6 +2,7 @@ package dev.hafil.travelCompanion.controller;
 
 import dev.hafil.travelCompanion.service.ChatService;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,7 +20,7 @@ public class ChatController {
     }
 
     @GetMapping
-    public String sayHello() {
-        return chatService.sayHello();
+    public String sayHello(Authentication authentication) {
+        return chatService.sayHello(authentication.getName());
     }
 }
@@ -1,27 +1,47 @@
 package dev.hafil.travelCompanion.controller;
 
+import dev.hafil.travelCompanion.dto.BulkDelete;
+import dev.hafil.travelCompanion.dto.BulkItemUpdate;
+import dev.hafil.travelCompanion.dto.CursorPage;
 import dev.hafil.travelCompanion.model.Item;
 import dev.hafil.travelCompanion.service.ItemService;
+import dev.hafil.travelCompanion.service.TripETagService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/trips/{tripId}/items")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ItemController {
     private final ItemService itemService;
+    private final TripETagService tripETagService;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, TripETagService tripETagService) {
         this.itemService = itemService;
+        this.tripETagService = tripETagService;
     }
 
     @GetMapping
-    public List<Item> list(@PathVariable Long tripId, Authentication auth) {
+    public List<Item> list(@PathVariable Long tripId, Authentication auth, NativeWebRequest request) {
+        if (tripETagService.isNotModified(request, tripId, auth.getName())) {
+            return null;
+        }
         return itemService.getItemsForTrip(tripId, auth.getName());
     }
 
+    @GetMapping("/page")
+    public CursorPage<Item> page(
+            @PathVariable Long tripId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return itemService.getItemPageForTrip(tripId, cursor, limit, auth.getName());
+    }
+
     @PostMapping
     public Item addItem(
             @PathVariable Long tripId,
@@ -38,6 +58,22 @@ public class ItemController {
         return itemService.addItems(tripId, items, auth.getName());
     }
 
+    @PutMapping("/bulk")
+    public Map<String, Integer> updatePacked(
+            @PathVariable Long tripId,
+            @RequestBody BulkItemUpdate update,
+            Authentication auth) {
+        return itemService.updatePackedBulk(tripId, update, auth.getName());
+    }
+
+    @PostMapping("/bulk/delete")
+    public Map<String, Integer> deleteItems(
+            @PathVariable Long tripId,
+            @RequestBody BulkDelete delete,
+            Authentication auth) {
+        return itemService.deleteItems(tripId, delete, auth.getName());
+    }
+
     @PutMapping("/{itemId}")
     public Item update(
             @PathVariable Long tripId,
@@ -1,11 +1,17 @@
 package dev.hafil.travelCompanion.controller;
 
+import dev.hafil.travelCompanion.dto.BulkDelete;
+import dev.hafil.travelCompanion.dto.BulkPlaceUpdate;
+import dev.hafil.travelCompanion.dto.CursorPage;
 import dev.hafil.travelCompanion.model.PlaceToVisit;
 import dev.hafil.travelCompanion.service.PlaceToVisitService;
+import dev.hafil.travelCompanion.service.TripETagService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/trips/{tripId}/places")
@@ -13,18 +19,33 @@ import java.util.List;
 public class PlaceToVisitController {
 
     private final PlaceToVisitService placeService;
+    private final TripETagService tripETagService;
 
-    public PlaceToVisitController(PlaceToVisitService placeService) {
+    public PlaceToVisitController(PlaceToVisitService placeService, TripETagService tripETagService) {
         this.placeService = placeService;
+        this.tripETagService = tripETagService;
     }
 
     @GetMapping
     public List<PlaceToVisit> list(
             @PathVariable Long tripId,
-            Authentication auth) {
+            Authentication auth,
+            NativeWebRequest request) {
+        if (tripETagService.isNotModified(request, tripId, auth.getName())) {
+            return null;
+        }
         return placeService.listPlaces(tripId, auth.getName());
     }
 
+    @GetMapping("/page")
+    public CursorPage<PlaceToVisit> page(
+            @PathVariable Long tripId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return placeService.listPlacePage(tripId, cursor, limit, auth.getName());
+    }
+
     @PostMapping
     public PlaceToVisit add(
             @PathVariable Long tripId,
@@ -41,6 +62,22 @@ public class PlaceToVisitController {
         return placeService.addPlaces(tripId, places, auth.getName());
     }
 
+    @PutMapping("/bulk")
+    public Map<String, Integer> updateVisited(
+            @PathVariable Long tripId,
+            @RequestBody BulkPlaceUpdate update,
+            Authentication auth) {
+        return placeService.updateVisitedBulk(tripId, update, auth.getName());
+    }
+
+    @PostMapping("/bulk/delete")
+    public Map<String, Integer> deletePlaces(
+            @PathVariable Long tripId,
+            @RequestBody BulkDelete delete,
+            Authentication auth) {
+        return placeService.deletePlaces(tripId, delete, auth.getName());
+    }
+
     @PutMapping("/{placeId}")
     public PlaceToVisit update(
             @PathVariable Long tripId,
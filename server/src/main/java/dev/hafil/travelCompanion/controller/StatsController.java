@@ -0,0 +1,37 @@
+package dev.hafil.travelCompanion.controller;
+
+import dev.hafil.travelCompanion.service.SecondLevelCacheService;
+import dev.hafil.travelCompanion.service.TripETagService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// admin only, see SecurityConfig; the same figures are exported as Micrometer meters
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+    private final TripETagService tripETagService;
+    private final SecondLevelCacheService secondLevelCacheService;
+
+    public StatsController(TripETagService tripETagService, SecondLevelCacheService secondLevelCacheService) {
+        this.tripETagService = tripETagService;
+        this.secondLevelCacheService = secondLevelCacheService;
+    }
+
+    // share of trip, item and place reads answered with 304 Not Modified
+    @GetMapping("/conditional-get")
+    public Map<String, Object> conditionalGet() {
+        return Map.of(
+                "notModified", tripETagService.notModifiedCount(),
+                "served", tripETagService.servedCount(),
+                "notModifiedRatio", tripETagService.notModifiedRatio());
+    }
+
+    // hit/miss/put counts per Hibernate second-level cache region
+    @GetMapping("/l2-cache")
+    public Map<String, Object> secondLevelCache() {
+        return secondLevelCacheService.stats();
+    }
+}
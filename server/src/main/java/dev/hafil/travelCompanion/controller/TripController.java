@@ -1,9 +1,16 @@
 package dev.hafil.travelCompanion.controller;
 
+import dev.hafil.travelCompanion.dto.ChangeSet;
+import dev.hafil.travelCompanion.dto.CursorPage;
+import dev.hafil.travelCompanion.dto.TripSummary;
+import dev.hafil.travelCompanion.dto.TripUpdate;
 import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.service.TripChangesService;
+import dev.hafil.travelCompanion.service.TripETagService;
 import dev.hafil.travelCompanion.service.TripService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
 
@@ -12,9 +19,16 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173")
 public class TripController {
     private final TripService tripService;
+    private final TripChangesService tripChangesService;
+    private final TripETagService tripETagService;
 
-    public TripController(TripService tripService) {
+    public TripController(
+            TripService tripService,
+            TripChangesService tripChangesService,
+            TripETagService tripETagService) {
         this.tripService = tripService;
+        this.tripChangesService = tripChangesService;
+        this.tripETagService = tripETagService;
     }
 
     // list trips for current user
@@ -23,18 +37,42 @@ public class TripController {
         return tripService.getAllTripsForUser(auth.getName());
     }
 
+    // keyset-paginated variant of GET /api/trips, ordered by start date
+    @GetMapping("/page")
+    public CursorPage<Trip> page(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return tripService.getTripPageForUser(auth.getName(), cursor, limit);
+    }
+
+    // name, destination, dates and item/place counts only, for the dashboard
+    @GetMapping("/summary")
+    public List<TripSummary> summaries(Authentication auth) {
+        return tripService.getTripSummariesForUser(auth.getName());
+    }
+
+    // trips, items, places and deletions since the token from the previous poll
+    @GetMapping("/changes")
+    public ChangeSet changes(@RequestParam(required = false) String since, Authentication auth) {
+        return tripChangesService.changesSince(auth.getName(), since);
+    }
+
     @PostMapping
     public Trip create(@RequestBody Trip trip, Authentication auth) {
         return tripService.createTrip(trip, auth.getName());
     }
 
     @GetMapping("/{id}")
-    public Trip get(@PathVariable Long id, Authentication auth) {
+    public Trip get(@PathVariable Long id, Authentication auth, NativeWebRequest request) {
+        if (tripETagService.isNotModified(request, id, auth.getName())) {
+            return null;
+        }
         return tripService.getTrip(id, auth.getName());
     }
 
     @PutMapping("/{id}")
-    public Trip update(@PathVariable Long id, @RequestBody Trip updated, Authentication auth) {
+    public Trip update(@PathVariable Long id, @RequestBody TripUpdate updated, Authentication auth) {
         return tripService.updateTrip(id, updated, auth.getName());
     }
 
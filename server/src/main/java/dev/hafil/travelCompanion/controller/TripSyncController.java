@@ -0,0 +1,36 @@
+package dev.hafil.travelCompanion.controller;
+
+import dev.hafil.travelCompanion.dto.TripBatchUpdate;
+import dev.hafil.travelCompanion.dto.TripDelta;
+import dev.hafil.travelCompanion.service.TripSyncService;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/trips/{tripId}")
+@CrossOrigin(origins = "http://localhost:5173")
+public class TripSyncController {
+    private final TripSyncService tripSyncService;
+
+    public TripSyncController(TripSyncService tripSyncService) {
+        this.tripSyncService = tripSyncService;
+    }
+
+    // packed/visited toggles for items and places in one request
+    @PostMapping("/batch")
+    public TripDelta batch(
+            @PathVariable Long tripId,
+            @RequestBody TripBatchUpdate batch,
+            Authentication auth) {
+        return tripSyncService.applyBatch(tripId, batch, auth.getName());
+    }
+
+    // items and places changed and ids deleted after revision `since`; every row when omitted
+    @GetMapping("/delta")
+    public TripDelta delta(
+            @PathVariable Long tripId,
+            @RequestParam(required = false) Long since,
+            Authentication auth) {
+        return tripSyncService.delta(tripId, since, auth.getName());
+    }
+}
@@ -0,0 +1,6 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.util.List;
+
+public record BulkItemUpdate(List<Long> ids, boolean packed) {
+}
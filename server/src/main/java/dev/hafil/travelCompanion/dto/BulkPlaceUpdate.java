@@ -0,0 +1,6 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.util.List;
+
+public record BulkPlaceUpdate(List<Long> ids, boolean visited) {
+}
@@ -0,0 +1,18 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.util.List;
+
+/**
+ * Everything that changed for a user since a sync token. {@code token} is
+ * passed back as {@code since} on the next poll. When {@code full} is true
+ * the token was missing or too old to trust the tombstones, and the lists
+ * hold every row the user owns.
+ */
+public record ChangeSet(
+        String token,
+        boolean full,
+        List<TripChange> trips,
+        List<ItemChange> items,
+        List<PlaceChange> places,
+        List<Deletion> deleted) {
+}
@@ -0,0 +1,10 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is null on
+ * the last page and otherwise is passed back verbatim to fetch the next one.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
@@ -0,0 +1,8 @@
+package dev.hafil.travelCompanion.dto;
+
+import dev.hafil.travelCompanion.model.Tombstone;
+
+import java.time.Instant;
+
+public record Deletion(Tombstone.Kind kind, Long id, Long tripId, Instant deletedAt) {
+}
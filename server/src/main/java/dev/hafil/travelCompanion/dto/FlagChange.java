@@ -0,0 +1,7 @@
+package dev.hafil.travelCompanion.dto;
+
+/**
+ * New packed/visited state for one item or place.
+ */
+public record FlagChange(Long id, boolean value) {
+}
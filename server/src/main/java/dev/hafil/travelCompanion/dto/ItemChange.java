@@ -0,0 +1,6 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.time.Instant;
+
+public record ItemChange(Long id, Long tripId, String name, boolean packed, long revision, long version, Instant updatedAt) {
+}
@@ -0,0 +1,58 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position of the last row returned by a keyset query, encoded as an opaque
+ * URL-safe token. Trips are ordered by (fromDate, id), items and places by id,
+ * so {@code date} is null for the latter.
+ */
+public record PageCursor(LocalDate date, long id) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    public String encode() {
+        String raw = (date == null ? "" : date.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null for a missing token; throws {@link IllegalArgumentException} for a malformed one. */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            LocalDate date = sep == 0 ? null : LocalDate.parse(raw.substring(0, sep));
+            return new PageCursor(date, Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Builds a page from a query that was asked for {@code limit + 1} rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int limit, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, limit);
+        return new CursorPage<>(List.copyOf(content), cursorOf.apply(content.get(limit - 1)).encode());
+    }
+}
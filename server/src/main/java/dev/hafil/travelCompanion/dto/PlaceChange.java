@@ -0,0 +1,6 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.time.Instant;
+
+public record PlaceChange(Long id, Long tripId, String name, boolean visited, long revision, long version, Instant updatedAt) {
+}
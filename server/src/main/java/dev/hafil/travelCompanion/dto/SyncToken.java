@@ -0,0 +1,56 @@
+package dev.hafil.travelCompanion.dto;
+
+import dev.hafil.travelCompanion.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque position in the changes feed: the stamp of every trip the client
+ * has seen, keyed by trip id. Versions and revisions are both incremented by
+ * the database under the trip's row lock, so they are ordered regardless of
+ * when a transaction commits or which instance served it. {@code issuedAt}
+ * only decides whether tombstones may have been purged since.
+ * {@code stamps} is null for the older time-based tokens, which get a full
+ * resync.
+ */
+public record SyncToken(Instant issuedAt, Map<Long, TripStamp> stamps) {
+
+    public String encode() {
+        String raw = issuedAt.toEpochMilli() + ";" + stamps.entrySet().stream()
+                .map(e -> e.getKey() + ":" + e.getValue().version() + ":" + e.getValue().revision())
+                .collect(Collectors.joining(","));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(';');
+            if (split < 0) {
+                return new SyncToken(Instant.ofEpochMilli(Long.parseLong(raw)), null);
+            }
+            Map<Long, TripStamp> stamps = new LinkedHashMap<>();
+            for (String entry : raw.substring(split + 1).split(",")) {
+                if (!entry.isEmpty()) {
+                    String[] parts = entry.split(":");
+                    if (parts.length != 3) {
+                        throw new BadRequestException("Invalid sync token");
+                    }
+                    stamps.put(Long.parseLong(parts[0]),
+                            new TripStamp(Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                }
+            }
+            return new SyncToken(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, split))), stamps);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid sync token");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.util.List;
+
+/**
+ * Packed and visited changes for one trip, applied together. {@code since}
+ * is the last revision the client has seen; when set, the response also
+ * carries rows other clients changed after it.
+ */
+public record TripBatchUpdate(List<FlagChange> items, List<FlagChange> places, Long since) {
+}
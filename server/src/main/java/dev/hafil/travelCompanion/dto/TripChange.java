@@ -0,0 +1,19 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Trip fields without the item and place collections, which are reported
+ * as separate rows in the changes feed.
+ */
+public record TripChange(
+        Long id,
+        String name,
+        String destination,
+        LocalDate fromDate,
+        LocalDate toDate,
+        long revision,
+        long version,
+        Instant updatedAt) {
+}
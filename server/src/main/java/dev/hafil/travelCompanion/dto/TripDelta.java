@@ -0,0 +1,16 @@
+package dev.hafil.travelCompanion.dto;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.PlaceToVisit;
+
+import java.util.List;
+
+/**
+ * Items and places changed after a given revision, those deleted since, and
+ * the trip's current revision to send as {@code since} next time. Deletes
+ * are only kept for the tombstone retention period
+ * ({@code travelCompanion.sync.tombstone-retention-ms}); a client that has
+ * been away longer should fetch the whole trip again.
+ */
+public record TripDelta(long revision, List<Item> items, List<PlaceToVisit> places, List<Deletion> deleted) {
+}
@@ -0,0 +1,12 @@
+package dev.hafil.travelCompanion.dto;
+
+/**
+ * Version of a trip's own fields plus the revision of its items and
+ * places; together they change whenever any representation of the trip does.
+ */
+public record TripStamp(long version, long revision) {
+
+    public String etag() {
+        return "\"" + version + "." + revision + "\"";
+    }
+}
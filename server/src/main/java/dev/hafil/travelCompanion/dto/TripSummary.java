@@ -0,0 +1,15 @@
+package dev.hafil.travelCompanion.dto;
+
+import java.time.LocalDate;
+
+public record TripSummary(
+        Long id,
+        String name,
+        String destination,
+        LocalDate fromDate,
+        LocalDate toDate,
+        long itemCount,
+        long packedCount,
+        long placeCount,
+        long visitedCount) {
+}
@@ -0,0 +1,9 @@
+package dev.hafil.travelCompanion.dto;
+
+/**
+ * Body of {@code PUT /api/trips/{id}}. {@code version} is the version the
+ * client last saw and is required (428 without it); the update is rejected
+ * with 409 if the trip has moved on since.
+ */
+public record TripUpdate(String name, String destination, Long version) {
+}
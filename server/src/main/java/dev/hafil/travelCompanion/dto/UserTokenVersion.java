@@ -0,0 +1,8 @@
+package dev.hafil.travelCompanion.dto;
+
+/**
+ * Current token version of one user, as loaded into the in-memory
+ * revocation table.
+ */
+public record UserTokenVersion(Long userId, long tokenVersion) {
+}
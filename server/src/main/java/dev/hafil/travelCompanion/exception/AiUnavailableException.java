@@ -0,0 +1,15 @@
+package dev.hafil.travelCompanion.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The model could not be reached in time: the circuit is open, every
+ * call slot is busy, or the call failed or timed out.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiUnavailableException extends ServiceUnavailableException {
+    public AiUnavailableException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,11 @@
+package dev.hafil.travelCompanion.exception;
+
+/**
+ * The model answered, but not with the JSON the prompt asked for. Handled
+ * like any other model failure: callers serve the fallback suggestions.
+ */
+public class MalformedAiResponseException extends AiUnavailableException {
+    public MalformedAiResponseException(String message) {
+        super(message, 1);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.hafil.travelCompanion.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A conditional request was required but the client sent no precondition,
+ * such as the version it last saw.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+public class PreconditionRequiredException extends AppException {
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.hafil.travelCompanion.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends AppException {
+    // 0 when there is no useful hint for the client
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message) {
+        this(message, 0);
+    }
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.hafil.travelCompanion.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "ai_suggestion_cache")
+public class AiSuggestionCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Lob
+    @Column(nullable = false)
+    private String places;
+
+    @Lob
+    @Column(nullable = false)
+    private String items;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public AiSuggestionCacheEntry() {}
+
+    public AiSuggestionCacheEntry(String fingerprint, String places, String items, Instant createdAt) {
+        this.fingerprint = fingerprint;
+        this.places = places;
+        this.items = items;
+        this.createdAt = createdAt;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getPlaces() {
+        return places;
+    }
+
+    public String getItems() {
+        return items;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -2,9 +2,12 @@ package dev.hafil.travelCompanion.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = @Index(name = "idx_items_trip_revision", columnList = "trip_id, revision"))
 public class Item {
     // getters/setters
     @Id
@@ -13,6 +16,17 @@ public class Item {
     private String name;
     private boolean packed = false;
 
+    // trip revision at which this row last changed
+    @Column(nullable = false, updatable = false)
+    private long revision;
+
+    // bulk updates bypass these, so they set both explicitly
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trip_id")
     @JsonBackReference
@@ -50,6 +64,26 @@ public class Item {
         this.packed = packed;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public Trip getTrip() {
         return trip;
     }
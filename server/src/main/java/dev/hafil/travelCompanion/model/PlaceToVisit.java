@@ -2,9 +2,12 @@ package dev.hafil.travelCompanion.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "places")
+@Table(name = "places", indexes = @Index(name = "idx_places_trip_revision", columnList = "trip_id, revision"))
 public class PlaceToVisit {
 
     @Id
@@ -14,6 +17,17 @@ public class PlaceToVisit {
     private String name;
     private boolean visited = false;
 
+    // trip revision at which this row last changed
+    @Column(nullable = false, updatable = false)
+    private long revision;
+
+    // bulk updates bypass these, so they set both explicitly
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trip_id")
     @JsonBackReference
@@ -30,6 +44,10 @@ public class PlaceToVisit {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -38,6 +56,26 @@ public class PlaceToVisit {
         return visited;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public Trip getTrip() {
         return trip;
     }
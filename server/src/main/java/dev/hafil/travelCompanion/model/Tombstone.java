@@ -0,0 +1,83 @@
+package dev.hafil.travelCompanion.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Marker left behind by a delete so that the changes feed and the per-trip
+ * delta can report it. Deleting a trip leaves a single TRIP tombstone; its
+ * items and places go with it.
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+        @Index(name = "idx_tombstones_owner_deleted", columnList = "owner_id, deleted_at"),
+        @Index(name = "idx_tombstones_trip_revision", columnList = "trip_id, revision")
+})
+public class Tombstone {
+
+    public enum Kind { TRIP, ITEM, PLACE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long tripId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // trip revision of the delete, for TripSyncService.delta
+    @Column(nullable = false)
+    private long revision;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone() {}
+
+    public Tombstone(Kind kind, Long entityId, Long tripId, Long ownerId, long revision, Instant deletedAt) {
+        this.kind = kind;
+        this.entityId = entityId;
+        this.tripId = tripId;
+        this.ownerId = ownerId;
+        this.revision = revision;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
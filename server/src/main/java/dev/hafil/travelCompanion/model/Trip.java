@@ -2,17 +2,25 @@ package dev.hafil.travelCompanion.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import dev.hafil.travelCompanion.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "trips")
+@Table(name = "trips", indexes = @Index(name = "idx_trips_owner_updated", columnList = "owner_id, updated_at"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TRIPS)
 public class Trip {
 
     @Id
@@ -33,6 +41,17 @@ public class Trip {
     private LocalDate toDate;
 
 
+    // bumped by every item/place mutation through bulk updates only, so a
+    // stale Trip entity being saved can never roll it back
+    @Column(nullable = false, updatable = false)
+    private long revision;
+
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @JsonBackReference
@@ -44,6 +63,7 @@ public class Trip {
             orphanRemoval = true
     )
     @JsonManagedReference
+    @BatchSize(size = 50)
     private List<Item> items = new ArrayList<>();
 
     @OneToMany(
@@ -52,6 +72,7 @@ public class Trip {
             orphanRemoval = true
     )
     @JsonManagedReference
+    @BatchSize(size = 50)
     private List<PlaceToVisit> placesToVisit = new ArrayList<>();
 
 
@@ -120,6 +141,22 @@ public class Trip {
         this.toDate = toDate;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     public User getOwner() {
         return owner;
     }
@@ -1,14 +1,20 @@
 package dev.hafil.travelCompanion.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.hafil.travelCompanion.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS)
 public class User {
     // getters/setters
     @Id
@@ -25,6 +31,11 @@ public class User {
 
     private String roles = "ROLE_USER";
 
+    // bumped on credential changes; stateless tokens carrying an older value are rejected
+    @JsonIgnore
+    @Column(nullable = false)
+    private long tokenVersion;
+
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<Trip> trips = new ArrayList<>();
@@ -69,6 +80,14 @@ public class User {
         this.roles = roles;
     }
 
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public List<Trip> getTrips() {
         return trips;
     }
@@ -0,0 +1,32 @@
+package dev.hafil.travelCompanion.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * One {@link TokenBucket} per key (a username, a client IP, ...), created
+ * on first use. At most {@code maxTracked} keys are kept, and an idle
+ * bucket is dropped once it would have refilled anyway, so forgetting it
+ * changes nothing.
+ */
+public class KeyedTokenBuckets {
+
+    private final long capacity;
+    private final double refillPerSecond;
+    private final Cache<String, TokenBucket> buckets;
+
+    public KeyedTokenBuckets(long capacity, double refillPerSecond, long maxTracked) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofSeconds((long) Math.ceil(capacity / refillPerSecond)))
+                .build();
+    }
+
+    public TokenBucket get(String key) {
+        return buckets.get(key, k -> new TokenBucket(capacity, refillPerSecond));
+    }
+}
@@ -0,0 +1,7 @@
+package dev.hafil.travelCompanion.repo;
+
+import dev.hafil.travelCompanion.model.AiSuggestionCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AiSuggestionCacheRepository extends JpaRepository<AiSuggestionCacheEntry, String> {
+}
@@ -0,0 +1,105 @@
+package dev.hafil.travelCompanion.repo;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.PlaceToVisit;
+import dev.hafil.travelCompanion.model.Trip;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Multi-row inserts for items and places. Hibernate cannot batch inserts
+ * for IDENTITY ids, so these go through plain JDBC batches; with
+ * {@code rewriteBatchedStatements=true} the MySQL driver sends each chunk
+ * as a single multi-row INSERT and still returns the generated keys.
+ */
+@Repository
+public class BulkInsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public BulkInsertRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${travelCompanion.bulk.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public List<Item> insertItems(Trip trip, List<Item> items) {
+        Instant now = Instant.now();
+        insert("insert into items (name, packed, revision, version, updated_at, trip_id) values (?, ?, ?, 0, ?, ?)",
+                items,
+                (ps, item) -> bind(ps, item.getName(), item.isPacked(), item.getRevision(), now, trip.getId()),
+                (item, id) -> {
+                    item.setId(id);
+                    item.setUpdatedAt(now);
+                });
+        return items;
+    }
+
+    @Transactional
+    public List<PlaceToVisit> insertPlaces(Trip trip, List<PlaceToVisit> places) {
+        Instant now = Instant.now();
+        insert("insert into places (name, visited, revision, version, updated_at, trip_id) values (?, ?, ?, 0, ?, ?)",
+                places,
+                (ps, place) -> bind(ps, place.getName(), place.isVisited(), place.getRevision(), now, trip.getId()),
+                (place, id) -> {
+                    place.setId(id);
+                    place.setUpdatedAt(now);
+                });
+        return places;
+    }
+
+    private interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    private <T> void insert(String sql, List<T> rows, Binder<T> binder, BiConsumer<T, Long> idSetter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < rows.size(); from += chunkSize) {
+                    List<T> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+                    for (T row : chunk) {
+                        binder.bind(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T row : chunk) {
+                            if (!keys.next()) {
+                                break;
+                            }
+                            idSetter.accept(row, keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void bind(PreparedStatement ps, String name, boolean flag, long revision, Instant now, Long tripId)
+            throws SQLException {
+        ps.setString(1, name);
+        ps.setBoolean(2, flag);
+        ps.setLong(3, revision);
+        ps.setTimestamp(4, Timestamp.from(now));
+        ps.setLong(5, tripId);
+    }
+}
@@ -1,10 +1,108 @@
 package dev.hafil.travelCompanion.repo;
 
+import dev.hafil.travelCompanion.dto.ItemChange;
 import dev.hafil.travelCompanion.model.Item;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByTripId(Long tripId);
+
+    List<Item> findByTripIdAndTripOwnerUsername(Long tripId, String username);
+
+    Optional<Item> findByIdAndTripIdAndTripOwnerUsername(Long id, Long tripId, String username);
+
+    List<Item> findByTripIdAndIdGreaterThanOrderByIdAsc(Long tripId, Long afterId, Limit limit);
+
+    List<Item> findByTripIdAndRevisionGreaterThanOrderByIdAsc(Long tripId, long revision);
+
+    List<Item> findByTripIdAndIdInOrderByIdAsc(Long tripId, Collection<Long> ids);
+
+    // rows take the trip's revision as bumped earlier in the same transaction; every
+    // mutation also checks ownership itself instead of relying on the bump having done so
+    @Modifying
+    @Query("""
+            update Item i
+            set i.packed = :packed,
+                i.revision = (select t.revision from Trip t where t.id = :tripId),
+                i.version = i.version + 1,
+                i.updatedAt = :now
+            where i.trip.id = :tripId and i.id in :ids
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int updatePacked(
+            @Param("tripId") Long tripId,
+            @Param("username") String username,
+            @Param("ids") List<Long> ids,
+            @Param("packed") boolean packed,
+            @Param("now") Instant now);
+
+    // mixed true/false changes in a single statement
+    @Modifying
+    @Query("""
+            update Item i
+            set i.packed = case when i.id in :packedIds then true else false end,
+                i.revision = (select t.revision from Trip t where t.id = :tripId),
+                i.version = i.version + 1,
+                i.updatedAt = :now
+            where i.trip.id = :tripId and i.id in :ids
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int applyPacked(
+            @Param("tripId") Long tripId,
+            @Param("username") String username,
+            @Param("ids") List<Long> ids,
+            @Param("packedIds") List<Long> packedIds,
+            @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update Item i
+            set i.name = :name, i.packed = :packed,
+                i.revision = (select t.revision from Trip t where t.id = :tripId),
+                i.version = i.version + 1,
+                i.updatedAt = :now
+            where i.id = :id and i.trip.id = :tripId
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int updateInTrip(
+            @Param("id") Long id,
+            @Param("tripId") Long tripId,
+            @Param("username") String username,
+            @Param("name") String name,
+            @Param("packed") boolean packed,
+            @Param("now") Instant now);
+
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.ItemChange(
+                i.id, i.trip.id, i.name, i.packed, i.revision, i.version, i.updatedAt)
+            from Item i
+            where i.trip.owner.username = :username
+              and i.trip.id in :tripIds and i.revision > :after
+            order by i.id
+            """)
+    List<ItemChange> findChangesInTrips(
+            @Param("username") String username,
+            @Param("tripIds") Collection<Long> tripIds,
+            @Param("after") long after);
+
+    @Modifying
+    @Query("""
+            delete from Item i
+            where i.trip.id = :tripId and i.id in :ids
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int deleteInTrip(@Param("tripId") Long tripId, @Param("username") String username, @Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("update Item i set i.updatedAt = :now where i.updatedAt is null")
+    int stampMissingUpdatedAt(@Param("now") Instant now);
 }
@@ -1,8 +1,107 @@
 package dev.hafil.travelCompanion.repo;
 
 
+import dev.hafil.travelCompanion.dto.PlaceChange;
 import dev.hafil.travelCompanion.model.PlaceToVisit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PlaceToVisitRepository extends JpaRepository<PlaceToVisit, Long> {
+    List<PlaceToVisit> findByTripIdAndTripOwnerUsername(Long tripId, String username);
+
+    Optional<PlaceToVisit> findByIdAndTripIdAndTripOwnerUsername(Long id, Long tripId, String username);
+
+    List<PlaceToVisit> findByTripIdAndIdGreaterThanOrderByIdAsc(Long tripId, Long afterId, Limit limit);
+
+    List<PlaceToVisit> findByTripIdAndRevisionGreaterThanOrderByIdAsc(Long tripId, long revision);
+
+    List<PlaceToVisit> findByTripIdAndIdInOrderByIdAsc(Long tripId, Collection<Long> ids);
+
+    // rows take the trip's revision as bumped earlier in the same transaction; every
+    // mutation also checks ownership itself instead of relying on the bump having done so
+    @Modifying
+    @Query("""
+            update PlaceToVisit p
+            set p.visited = :visited,
+                p.revision = (select t.revision from Trip t where t.id = :tripId),
+                p.version = p.version + 1,
+                p.updatedAt = :now
+            where p.trip.id = :tripId and p.id in :ids
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int updateVisited(
+            @Param("tripId") Long tripId,
+            @Param("username") String username,
+            @Param("ids") List<Long> ids,
+            @Param("visited") boolean visited,
+            @Param("now") Instant now);
+
+    // mixed true/false changes in a single statement
+    @Modifying
+    @Query("""
+            update PlaceToVisit p
+            set p.visited = case when p.id in :visitedIds then true else false end,
+                p.revision = (select t.revision from Trip t where t.id = :tripId),
+                p.version = p.version + 1,
+                p.updatedAt = :now
+            where p.trip.id = :tripId and p.id in :ids
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int applyVisited(
+            @Param("tripId") Long tripId,
+            @Param("username") String username,
+            @Param("ids") List<Long> ids,
+            @Param("visitedIds") List<Long> visitedIds,
+            @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update PlaceToVisit p
+            set p.name = :name, p.visited = :visited,
+                p.revision = (select t.revision from Trip t where t.id = :tripId),
+                p.version = p.version + 1,
+                p.updatedAt = :now
+            where p.id = :id and p.trip.id = :tripId
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int updateInTrip(
+            @Param("id") Long id,
+            @Param("tripId") Long tripId,
+            @Param("username") String username,
+            @Param("name") String name,
+            @Param("visited") boolean visited,
+            @Param("now") Instant now);
+
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.PlaceChange(
+                p.id, p.trip.id, p.name, p.visited, p.revision, p.version, p.updatedAt)
+            from PlaceToVisit p
+            where p.trip.owner.username = :username
+              and p.trip.id in :tripIds and p.revision > :after
+            order by p.id
+            """)
+    List<PlaceChange> findChangesInTrips(
+            @Param("username") String username,
+            @Param("tripIds") Collection<Long> tripIds,
+            @Param("after") long after);
+
+    @Modifying
+    @Query("""
+            delete from PlaceToVisit p
+            where p.trip.id = :tripId and p.id in :ids
+              and exists (select t.id from Trip t where t.id = :tripId and t.owner.username = :username)
+            """)
+    int deleteInTrip(@Param("tripId") Long tripId, @Param("username") String username, @Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("update PlaceToVisit p set p.updatedAt = :now where p.updatedAt is null")
+    int stampMissingUpdatedAt(@Param("now") Instant now);
 }
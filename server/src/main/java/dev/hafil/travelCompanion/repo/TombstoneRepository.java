@@ -0,0 +1,63 @@
+package dev.hafil.travelCompanion.repo;
+
+import dev.hafil.travelCompanion.dto.Deletion;
+import dev.hafil.travelCompanion.model.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    // written from the rows about to be deleted, so ids outside the trip leave
+    // nothing behind; the trip's revision has already been bumped for the delete
+    @Modifying
+    @Query("""
+            insert into Tombstone (kind, entityId, tripId, ownerId, revision, deletedAt)
+            select dev.hafil.travelCompanion.model.Tombstone.Kind.ITEM, i.id, i.trip.id, i.trip.owner.id,
+                   i.trip.revision, :deletedAt
+            from Item i
+            where i.trip.id = :tripId and i.id in :ids
+            """)
+    int recordItems(@Param("tripId") Long tripId, @Param("ids") List<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    @Modifying
+    @Query("""
+            insert into Tombstone (kind, entityId, tripId, ownerId, revision, deletedAt)
+            select dev.hafil.travelCompanion.model.Tombstone.Kind.PLACE, p.id, p.trip.id, p.trip.owner.id,
+                   p.trip.revision, :deletedAt
+            from PlaceToVisit p
+            where p.trip.id = :tripId and p.id in :ids
+            """)
+    int recordPlaces(@Param("tripId") Long tripId, @Param("ids") List<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    // a trip's own tombstone carries the revision it was deleted at, which the client may already have seen
+    @Query("""
+            select t
+            from Tombstone t
+            where t.ownerId = (select u.id from User u where u.username = :username)
+              and t.tripId in :tripIds
+              and (t.kind = dev.hafil.travelCompanion.model.Tombstone.Kind.TRIP or t.revision > :after)
+            order by t.revision, t.id
+            """)
+    List<Tombstone> findInTrips(
+            @Param("username") String username,
+            @Param("tripIds") Collection<Long> tripIds,
+            @Param("after") long after);
+
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.Deletion(t.kind, t.entityId, t.tripId, t.deletedAt)
+            from Tombstone t
+            where t.tripId = :tripId and t.revision > :revision
+            order by t.revision, t.id
+            """)
+    List<Deletion> findDeletionsInTripAfter(@Param("tripId") Long tripId, @Param("revision") long revision);
+
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :cutoff")
+    int purgeBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,9 +1,96 @@
 package dev.hafil.travelCompanion.repo;
 
+import dev.hafil.travelCompanion.dto.TripChange;
+import dev.hafil.travelCompanion.dto.TripStamp;
+import dev.hafil.travelCompanion.dto.TripSummary;
 import dev.hafil.travelCompanion.model.Trip;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface TripRepository extends JpaRepository<Trip, Long> {
+    String REVISION_SPACE = "trip_revisions";
+
     List<Trip> findByOwnerUsername(String username);
+
+    @Query("select t.owner.username from Trip t where t.id = :id")
+    Optional<String> findOwnerUsernameById(@Param("id") Long id);
+
+    // native, and synchronized on a space no entity maps, so Hibernate leaves
+    // the trips cache region alone; TripRevisionService evicts the one trip
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = REVISION_SPACE))
+    @Query(nativeQuery = true, value = """
+            update trips set revision = revision + 1, updated_at = :now
+            where id = :id
+              and owner_id = (select u.id from users u where u.username = :username)
+            """)
+    int incrementRevision(@Param("id") Long id, @Param("username") String username, @Param("now") Instant now);
+
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.TripStamp(t.version, t.revision)
+            from Trip t
+            where t.id = :id and t.owner.username = :username
+            """)
+    Optional<TripStamp> findStamp(@Param("id") Long id, @Param("username") String username);
+
+    @Query("select t.revision from Trip t where t.id = :id and t.owner.username = :username")
+    Optional<Long> findRevision(@Param("id") Long id, @Param("username") String username);
+
+    // items are fetch-joined; placesToVisit is a second bag, so it is
+    // initialized through @BatchSize instead of a second join
+    @EntityGraph(attributePaths = "items")
+    @Query("select t from Trip t where t.owner.username = :username")
+    List<Trip> findAggregatesByOwnerUsername(@Param("username") String username);
+
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.TripSummary(
+                t.id, t.name, t.destination, t.fromDate, t.toDate,
+                (select count(i) from Item i where i.trip = t),
+                (select count(i) from Item i where i.trip = t and i.packed = true),
+                (select count(p) from PlaceToVisit p where p.trip = t),
+                (select count(p) from PlaceToVisit p where p.trip = t and p.visited = true))
+            from Trip t
+            where t.owner.username = :username
+            order by t.fromDate, t.id
+            """)
+    List<TripSummary> findSummariesByOwnerUsername(@Param("username") String username);
+
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.TripChange(
+                t.id, t.name, t.destination, t.fromDate, t.toDate, t.revision, t.version, t.updatedAt)
+            from Trip t
+            where t.owner.username = :username
+            order by t.id
+            """)
+    List<TripChange> findChanges(@Param("username") String username);
+
+    List<Trip> findByOwnerUsernameOrderByFromDateAscIdAsc(String username, Limit limit);
+
+    @Query("""
+            select t from Trip t
+            where t.owner.username = :username
+              and (t.fromDate > :fromDate or (t.fromDate = :fromDate and t.id > :id))
+            order by t.fromDate, t.id
+            """)
+    List<Trip> findPageAfter(
+            @Param("username") String username,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Modifying
+    @Query("update Trip t set t.updatedAt = :now where t.updatedAt is null")
+    int stampMissingUpdatedAt(@Param("now") Instant now);
 }
@@ -1,11 +1,34 @@
 package dev.hafil.travelCompanion.repo;
 
+import dev.hafil.travelCompanion.config.SecondLevelCacheConfig;
+import dev.hafil.travelCompanion.dto.UserTokenVersion;
 import dev.hafil.travelCompanion.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // served from the users-by-username query region when the second-level cache is enabled
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.USERS_BY_USERNAME)
+    })
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    // only users who ever changed credentials; everyone else is implicitly at version 0
+    @Query("""
+            select new dev.hafil.travelCompanion.dto.UserTokenVersion(u.id, u.tokenVersion)
+            from User u
+            where u.tokenVersion > 0
+            """)
+    List<UserTokenVersion> findTokenVersions();
+
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
 }
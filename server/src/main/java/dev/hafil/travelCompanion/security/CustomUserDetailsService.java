@@ -7,6 +7,7 @@ import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,10 +19,16 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User u = userRepo.findByUsername(username).orElseThrow(() ->
                 new UsernameNotFoundException("User not found"));
-        var authorities = Arrays.stream(u.getRoles().split(","))
-                .map(String::trim)
+        var authorities = roleNames(u.getRoles()).stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
         return new org.springframework.security.core.userdetails.User(u.getUsername(), u.getPassword(), authorities);
     }
+
+    // the comma-separated users.roles column, as written into stateless tokens too
+    public static List<String> roleNames(String roles) {
+        return Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .toList();
+    }
 }
@@ -1,23 +1,55 @@
 package dev.hafil.travelCompanion.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
 import org.springframework.security.authentication.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final JwtPrincipalCache principalCache;
+    private final TokenVersionTable tokenVersions;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer statelessTimer;
+    private final Timer revokedTimer;
+    private final Timer invalidTimer;
 
-    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService,
+            JwtPrincipalCache principalCache, TokenVersionTable tokenVersions, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.cachedTimer = timer(meterRegistry, "cached");
+        this.verifiedTimer = timer(meterRegistry, "verified");
+        this.statelessTimer = timer(meterRegistry, "stateless");
+        this.revokedTimer = timer(meterRegistry, "revoked");
+        this.invalidTimer = timer(meterRegistry, "invalid");
+    }
+
+    // time spent turning a bearer token into a principal, by how it was resolved
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("travelcompanion.jwt.filter")
+                .description("Bearer token resolution in JwtAuthFilter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -29,14 +61,63 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && jwtService.validateToken(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String username = jwtService.extractUsername(token);
-            var userDetails = userDetailsService.loadUserByUsername(username);
-            var auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(token);
+            if (userDetails != null) {
+                var auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            }
         }
 
         chain.doFilter(req, res);
     }
+
+    private UserDetails resolvePrincipal(String token) {
+        long start = System.nanoTime();
+        Timer outcome = invalidTimer;
+        try {
+            UserDetails cached = principalCache.get(token);
+            if (cached != null) {
+                outcome = cachedTimer;
+                return cached;
+            }
+            Claims claims = jwtService.parseClaims(token).orElse(null);
+            if (claims == null) {
+                return null;
+            }
+            // tokens issued before stateless mode was switched on carry no uid and take the lookup below
+            if (jwtService.isStateless() && claims.get(JwtService.USER_ID_CLAIM) != null) {
+                UserDetails principal = statelessPrincipal(claims);
+                outcome = principal != null ? statelessTimer : revokedTimer;
+                return principal;
+            }
+            long generation = principalCache.generation();
+            UserDetails userDetails;
+            try {
+                userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            } catch (UsernameNotFoundException ex) {
+                // renamed or deleted since the token was issued
+                outcome = revokedTimer;
+                return null;
+            }
+            principalCache.put(token, userDetails, claims.getExpiration().toInstant(), generation);
+            outcome = verifiedTimer;
+            return userDetails;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private UserDetails statelessPrincipal(Claims claims) {
+        Long userId = claims.get(JwtService.USER_ID_CLAIM, Long.class);
+        Long tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Long.class);
+        if (tokenVersion == null || !tokenVersions.isCurrent(userId, tokenVersion)) {
+            return null;
+        }
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of()
+                : roles.stream().map(role -> new SimpleGrantedAuthority(role.toString())).toList();
+        return new User(claims.getSubject(), "", authorities);
+    }
 }
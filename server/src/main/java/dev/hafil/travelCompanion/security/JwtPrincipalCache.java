@@ -0,0 +1,95 @@
+package dev.hafil.travelCompanion.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the principal behind recently verified tokens so that repeat
+ * requests skip both signature verification and the users table lookup.
+ * Entries are keyed by a SHA-256 digest of the raw token and never outlive
+ * the token itself.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private record Entry(UserDetails userDetails, Instant expiresAt) {}
+
+    private final Cache<String, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public JwtPrincipalCache(
+            @Value("${travelCompanion.jwt.principal-cache.max-size:10000}") long maxSize,
+            @Value("${travelCompanion.jwt.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String token) {
+        String key = digest(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(Instant.now())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    /**
+     * Stores a freshly loaded principal. {@code seenGeneration} must be read
+     * via {@link #generation()} before the user was loaded, so a load that
+     * raced with {@link #invalidate(String)} is dropped instead of cached.
+     */
+    public void put(String token, UserDetails userDetails, Instant expiresAt, long seenGeneration) {
+        if (seenGeneration != generation.get()) {
+            return;
+        }
+        cache.put(digest(token), new Entry(userDetails, expiresAt));
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(e -> e.userDetails().getUsername().equals(username));
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.hafil.travelCompanion.security;
 
+import dev.hafil.travelCompanion.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,40 +8,78 @@ import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 
 @Service
 public class JwtService {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "tv";
+
     private final Key key;
+    // thread-safe; building one per call repeats a service-loader lookup
+    private final JwtParser parser;
     private final long expirationMs;
+    private final boolean stateless;
 
     public JwtService(@Value("${travelCompanion.jwt.secret}") String secret,
-                      @Value("${travelCompanion.jwt.expiration-ms}") long expirationMs) {
+                      @Value("${travelCompanion.jwt.expiration-ms}") long expirationMs,
+                      @Value("${travelCompanion.jwt.stateless:false}") boolean stateless) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
         this.expirationMs = expirationMs;
+        this.stateless = stateless;
     }
 
     public String generateToken(String username) {
+        return builder(username).compact();
+    }
+
+    /**
+     * In stateless mode the token also carries the user id, roles and token
+     * version, so {@code JwtAuthFilter} can authenticate it without a lookup.
+     */
+    public String generateToken(User user) {
+        JwtBuilder builder = builder(user.getUsername());
+        if (stateless) {
+            builder.claim(USER_ID_CLAIM, user.getId())
+                    .claim(ROLES_CLAIM, CustomUserDetailsService.roleNames(user.getRoles()))
+                    .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return builder.compact();
+    }
+
+    private JwtBuilder builder(String username) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256);
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    public boolean isStateless() {
+        return stateless;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature and expiry once and returns the claims,
+     * or empty when the token is malformed, tampered with or expired.
+     */
+    public Optional<Claims> parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return Optional.of(parser.parseClaimsJws(token).getBody());
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
         }
     }
+
+    public String extractUsername(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return parseClaims(token).isPresent();
+    }
 }
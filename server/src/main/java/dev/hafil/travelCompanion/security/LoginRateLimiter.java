@@ -0,0 +1,55 @@
+package dev.hafil.travelCompanion.security;
+
+import dev.hafil.travelCompanion.exception.TooManyRequestsException;
+import dev.hafil.travelCompanion.ratelimit.KeyedTokenBuckets;
+import dev.hafil.travelCompanion.ratelimit.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-client-IP and per-(username, client IP) token buckets in front of the
+ * password endpoints, so one client cannot queue unbounded BCrypt work.
+ * Username buckets are scoped to the caller's IP so that spamming bad
+ * passwords for someone else's account does not lock them out.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final KeyedTokenBuckets usernameBuckets;
+    private final KeyedTokenBuckets ipBuckets;
+
+    public LoginRateLimiter(
+            @Value("${travelCompanion.auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${travelCompanion.auth.rate-limit.per-username.capacity:10}") long usernameCapacity,
+            @Value("${travelCompanion.auth.rate-limit.per-username.refill-per-minute:10}") double usernameRefillPerMinute,
+            @Value("${travelCompanion.auth.rate-limit.per-ip.capacity:30}") long ipCapacity,
+            @Value("${travelCompanion.auth.rate-limit.per-ip.refill-per-minute:30}") double ipRefillPerMinute,
+            @Value("${travelCompanion.auth.rate-limit.max-tracked:100000}") long maxTracked) {
+        this.enabled = enabled;
+        this.usernameBuckets = new KeyedTokenBuckets(usernameCapacity, usernameRefillPerMinute / 60, maxTracked);
+        this.ipBuckets = new KeyedTokenBuckets(ipCapacity, ipRefillPerMinute / 60, maxTracked);
+    }
+
+    /**
+     * Takes one token from the client's bucket and, when a username is
+     * given, one from that username's bucket for this client; throws 429
+     * when either is empty.
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        take(ipBuckets.get(clientIp));
+        if (username != null) {
+            take(usernameBuckets.get(username + '|' + clientIp));
+        }
+    }
+
+    private static void take(TokenBucket bucket) {
+        if (!bucket.tryConsume()) {
+            throw new TooManyRequestsException("Too many attempts, try again later",
+                    Math.max(1, bucket.secondsUntilNextToken()));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package dev.hafil.travelCompanion.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -17,24 +19,39 @@ public class SecurityConfig {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final JwtPrincipalCache principalCache;
+    private final TokenVersionTable tokenVersions;
+    private final MeterRegistry meterRegistry;
     private final org.springframework.web.servlet.HandlerExceptionResolver handlerExceptionResolver;
 
     public SecurityConfig(JwtService jwtService, CustomUserDetailsService userDetailsService,
+            JwtPrincipalCache principalCache, TokenVersionTable tokenVersions, MeterRegistry meterRegistry,
             @Qualifier("handlerExceptionResolver") org.springframework.web.servlet.HandlerExceptionResolver handlerExceptionResolver) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.meterRegistry = meterRegistry;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        var jwtFilter = new JwtAuthFilter(jwtService, userDetailsService);
+        var jwtFilter = new JwtAuthFilter(jwtService, userDetailsService, principalCache, tokenVersions,
+                meterRegistry);
 
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // SSE completions re-dispatch without the bearer token; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        // health probes and the Prometheus scraper carry no token; both are only
+                        // served on the management port, which is bound to localhost by default
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // figures for the whole system, not the caller's own data
+                        .requestMatchers("/api/stats/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .userDetailsService(userDetailsService)
@@ -57,6 +74,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(java.util.List.of(frontendUrl));
         configuration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(java.util.List.of("*"));
+        configuration.setExposedHeaders(java.util.List.of("ETag"));
         configuration.setAllowCredentials(true);
 
         var source = new org.springframework.web.cors.UrlBasedCorsConfigurationSource();
@@ -64,9 +82,10 @@ public class SecurityConfig {
         return source;
     }
 
+    // raising the strength rehashes each user's password on their next successful login
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${travelCompanion.auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -0,0 +1,69 @@
+package dev.hafil.travelCompanion.security;
+
+import dev.hafil.travelCompanion.dto.UserTokenVersion;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation check for stateless tokens. Holds the token version of every
+ * user who has changed credentials (everyone else is at 0), so checking a
+ * token is a map lookup. The table is loaded at startup and reloaded every
+ * {@code refresh-ms} to pick up changes made by other instances; changes
+ * made here are applied immediately.
+ */
+@Component
+public class TokenVersionTable {
+
+    private final UserRepository userRepo;
+    private final boolean enabled;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionTable(
+            UserRepository userRepo,
+            @Value("${travelCompanion.jwt.stateless:false}") boolean enabled) {
+        this.userRepo = userRepo;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void load() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${travelCompanion.jwt.token-version.refresh-ms:60000}",
+            initialDelayString = "${travelCompanion.jwt.token-version.refresh-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // versions only grow, so merging never undoes a bump recorded while the query ran
+        for (UserTokenVersion row : userRepo.findTokenVersions()) {
+            record(row.userId(), row.tokenVersion());
+        }
+    }
+
+    /**
+     * A token is current unless the user has moved past its version. A
+     * newer version than the table knows is accepted: it was issued by an
+     * instance that saw the bump before this one's next refresh.
+     */
+    public boolean isCurrent(long userId, long tokenVersion) {
+        return tokenVersion >= versions.getOrDefault(userId, 0L);
+    }
+
+    public void record(long userId, long tokenVersion) {
+        versions.merge(userId, tokenVersion, Math::max);
+    }
+
+    public int size() {
+        return versions.size();
+    }
+}
@@ -0,0 +1,79 @@
+package dev.hafil.travelCompanion.security;
+
+import dev.hafil.travelCompanion.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of every username, so registering or renaming to a name
+ * nobody has skips the {@code existsByUsername} query. A "maybe taken"
+ * answer is still confirmed against the database: the filter has false
+ * positives and cannot forget the old name after a rename. The unique
+ * constraint stays the arbiter for races and for names added by other
+ * instances. Rebuilt from the database every {@code rebuild-ms}, sized
+ * for twice the current user count.
+ */
+@Component
+public class UsernameIndex {
+
+    private final UserRepository userRepo;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+
+    public UsernameIndex(
+            UserRepository userRepo,
+            @Value("${travelCompanion.auth.username-index.expected-users:100000}") long expectedUsers,
+            @Value("${travelCompanion.auth.username-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepo = userRepo;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${travelCompanion.auth.username-index.rebuild-ms:3600000}",
+            initialDelayString = "${travelCompanion.auth.username-index.rebuild-ms:3600000}")
+    public void rebuild() {
+        List<String> usernames = userRepo.findAllUsernames();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedUsers, 2L * usernames.size()), falsePositiveRate);
+        usernames.forEach(username -> rebuilt.add(key(username)));
+        // a name added to the old filter during the reload may be missing here; the constraint still catches it
+        filter = rebuilt;
+    }
+
+    /** False means no user has this name; true means one might. */
+    public boolean mightExist(String username) {
+        boolean maybe = filter.mightContain(key(username));
+        (maybe ? positives : negatives).incrementAndGet();
+        return maybe;
+    }
+
+    public void add(String username) {
+        filter.add(key(username));
+    }
+
+    public long negativeCount() {
+        return negatives.get();
+    }
+
+    public long positiveCount() {
+        return positives.get();
+    }
+
+    // MySQL's default collation compares usernames case-insensitively, so the filter must too
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,10 +1,16 @@
 package dev.hafil.travelCompanion.service;
 
+import dev.hafil.travelCompanion.exception.ConflictException;
 import dev.hafil.travelCompanion.model.User;
 import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtPrincipalCache;
 import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.security.LoginRateLimiter;
+import dev.hafil.travelCompanion.security.PasswordHashingService;
+import dev.hafil.travelCompanion.security.TokenVersionTable;
+import dev.hafil.travelCompanion.security.UsernameIndex;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -14,20 +20,35 @@ import java.util.Map;
 public class AuthService {
 
     private final UserRepository userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final LoginRateLimiter rateLimiter;
     private final JwtService jwtService;
+    private final JwtPrincipalCache principalCache;
+    private final SecondLevelCacheService secondLevelCache;
+    private final TokenVersionTable tokenVersions;
+    private final UsernameIndex usernameIndex;
 
     public AuthService(
             UserRepository userRepo,
-            PasswordEncoder passwordEncoder,
-            JwtService jwtService
+            PasswordHashingService passwordHashing,
+            LoginRateLimiter rateLimiter,
+            JwtService jwtService,
+            JwtPrincipalCache principalCache,
+            SecondLevelCacheService secondLevelCache,
+            TokenVersionTable tokenVersions,
+            UsernameIndex usernameIndex
     ) {
         this.userRepo = userRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.rateLimiter = rateLimiter;
         this.jwtService = jwtService;
+        this.principalCache = principalCache;
+        this.secondLevelCache = secondLevelCache;
+        this.tokenVersions = tokenVersions;
+        this.usernameIndex = usernameIndex;
     }
 
-    public Map<String, String> register(String username, String password) {
+    public Map<String, String> register(String username, String password, String clientIp) {
 
         if (username == null || username.isBlank()) {
             throw new ResponseStatusException(
@@ -43,24 +64,28 @@ public class AuthService {
             );
         }
 
-        if (userRepo.existsByUsername(username)) {
-            throw new ResponseStatusException(
-                    HttpStatus.CONFLICT,
-                    "Username already exists"
-            );
+        rateLimiter.acquire(null, clientIp);
+
+        if (isTaken(username)) {
+            throw new ConflictException("Username already exists");
         }
 
         User user = new User();
         user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashing.encode(password));
 
-        userRepo.save(user);
+        try {
+            userRepo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException("Username already exists");
+        }
+        usernameIndex.add(username);
 
         return Map.of("message", "User registered successfully");
     }
 
 
-    public Map<String, String> login(String username, String password) {
+    public Map<String, String> login(String username, String password, String clientIp) {
 
         if (username == null || password == null) {
             throw new ResponseStatusException(
@@ -69,20 +94,28 @@ public class AuthService {
             );
         }
 
+        rateLimiter.acquire(username, clientIp);
+
         User user = userRepo.findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.UNAUTHORIZED,
                         "Invalid username or password"
                 ));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashing.matches(password, user.getPassword())) {
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
                     "Invalid username or password"
             );
         }
 
-        String token = jwtService.generateToken(user.getUsername());
+        // the plaintext is only at hand here, so this is where an older work factor gets upgraded
+        if (passwordHashing.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashing.encode(password));
+            userRepo.save(user);
+        }
+
+        String token = jwtService.generateToken(user);
 
         return Map.of("token", token);
     }
@@ -97,11 +130,8 @@ public class AuthService {
             );
         }
 
-        if (userRepo.existsByUsername(newUsername)) {
-            throw new ResponseStatusException(
-                    HttpStatus.CONFLICT,
-                    "Username already taken"
-            );
+        if (isTaken(newUsername)) {
+            throw new ConflictException("Username already taken");
         }
 
         User user = userRepo.findByUsername(currentUsername)
@@ -111,13 +141,20 @@ public class AuthService {
                 ));
 
         user.setUsername(newUsername);
-        userRepo.save(user);
+        try {
+            revokeTokens(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException("Username already taken");
+        }
+        usernameIndex.add(newUsername);
+        principalCache.invalidate(currentUsername);
 
         return Map.of("username", newUsername);
     }
 
 
-    public void changePassword(
+    // returns a token for the caller's session, since the one it used is now revoked
+    public String changePassword(
             String username,
             String oldPassword,
             String newPassword
@@ -136,14 +173,28 @@ public class AuthService {
                         "User not found"
                 ));
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHashing.matches(oldPassword, user.getPassword())) {
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
                     "Old password is incorrect"
             );
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepo.save(user);
+        user.setPassword(passwordHashing.encode(newPassword));
+        revokeTokens(user);
+        principalCache.invalidate(username);
+        return jwtService.generateToken(user);
+    }
+
+    // a name the index has never seen is free without asking the database
+    private boolean isTaken(String username) {
+        return usernameIndex.mightExist(username) && userRepo.existsByUsername(username);
+    }
+
+    private void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepo.saveAndFlush(user);
+        secondLevelCache.evictUser(user.getId());
+        tokenVersions.record(user.getId(), user.getTokenVersion());
     }
 }
@@ -1,17 +1,22 @@
 package dev.hafil.travelCompanion.service;
 
+import dev.hafil.travelCompanion.ai.AiCallGuard;
+import dev.hafil.travelCompanion.ai.AiCallMetrics;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ChatService {
     private final ChatClient chatClient;
+    private final AiCallGuard guard;
 
-    public ChatService(ChatClient.Builder chatClientBuilder){
+    public ChatService(ChatClient.Builder chatClientBuilder, AiCallGuard guard){
         this.chatClient = chatClientBuilder.build();
+        this.guard = guard;
     }
 
-    public  String sayHello(){
-        return chatClient.prompt("Say who your in 1 line").call().content();
+    public  String sayHello(String username){
+        return AiCallMetrics.text(guard.call("hello", username,
+                () -> chatClient.prompt("Say who your in 1 line").call().chatResponse()));
     }
 }
@@ -1,74 +1,119 @@
 package dev.hafil.travelCompanion.service;
 
+import dev.hafil.travelCompanion.dto.BulkDelete;
+import dev.hafil.travelCompanion.dto.BulkItemUpdate;
+import dev.hafil.travelCompanion.dto.CursorPage;
+import dev.hafil.travelCompanion.dto.PageCursor;
 import dev.hafil.travelCompanion.model.Item;
 import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.repo.BulkInsertRepository;
 import dev.hafil.travelCompanion.repo.ItemRepository;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
 import dev.hafil.travelCompanion.repo.TripRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ItemService {
 
     private final ItemRepository itemRepo;
     private final TripRepository tripRepo;
+    private final BulkInsertRepository bulkInsertRepo;
+    private final TombstoneRepository tombstoneRepo;
+    private final TripRevisionService revisions;
 
-    public ItemService(ItemRepository itemRepo, TripRepository tripRepo) {
+    public ItemService(
+            ItemRepository itemRepo,
+            TripRepository tripRepo,
+            BulkInsertRepository bulkInsertRepo,
+            TombstoneRepository tombstoneRepo,
+            TripRevisionService revisions) {
         this.itemRepo = itemRepo;
         this.tripRepo = tripRepo;
+        this.bulkInsertRepo = bulkInsertRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.revisions = revisions;
     }
 
     public List<Item> getItemsForTrip(Long tripId, String username) {
-        Trip trip = tripRepo.findById(tripId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found"));
-        if (!trip.getOwner().getUsername().equals(username)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: this trip does not belong to you.");
+        List<Item> items = itemRepo.findByTripIdAndTripOwnerUsername(tripId, username);
+        if (items.isEmpty()) {
+            // an empty list may also mean a missing or foreign trip
+            revisions.checkOwner(tripId, username);
         }
-        return itemRepo.findByTripId(tripId);
+        return items;
     }
 
+    public CursorPage<Item> getItemPageForTrip(Long tripId, String cursor, Integer limit, String username) {
+        revisions.checkOwner(tripId, username);
+        PageCursor after = PageCursors.decode(cursor, false);
+        int size = PageCursor.clampLimit(limit);
+        List<Item> rows = itemRepo.findByTripIdAndIdGreaterThanOrderByIdAsc(
+                tripId, after == null ? 0L : after.id(), Limit.of(size + 1));
+        return PageCursor.page(rows, size, i -> new PageCursor(null, i.getId()));
+    }
+
+    @Transactional
     public Item addItem(Long tripId, Item item, String username) {
-        Trip trip = tripRepo.findById(tripId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found"));
-        if (!trip.getOwner().getUsername().equals(username)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: this trip does not belong to you.");
-        }
-        item.setTrip(trip);
+        item.setRevision(revisions.next(tripId, username));
+        item.setTrip(tripRepo.getReferenceById(tripId));
         return itemRepo.save(item);
     }
 
+    @Transactional
     public List<Item> addItems(Long tripId, List<Item> items, String username) {
-        Trip trip = tripRepo.findById(tripId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found"));
-        if (!trip.getOwner().getUsername().equals(username)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: this trip does not belong to you.");
-        }
+        long revision = revisions.next(tripId, username);
+        Trip trip = tripRepo.getReferenceById(tripId);
         for (Item item : items) {
             item.setTrip(trip);
+            item.setRevision(revision);
         }
 
-        return itemRepo.saveAll(items);
+        return bulkInsertRepo.insertItems(trip, items);
     }
 
-    public Item updateItem(Long tripId, Long itemId, Item updated, String username) {
-        Trip trip = tripRepo.findById(tripId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found"));
-        if (!trip.getOwner().getUsername().equals(username)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: this trip does not belong to you.");
+    @Transactional
+    public Map<String, Integer> updatePackedBulk(Long tripId, BulkItemUpdate update, String username) {
+        if (update.ids() == null || update.ids().isEmpty()) {
+            revisions.checkOwner(tripId, username);
+            return Map.of("updated", 0);
         }
-        return itemRepo.findById(itemId).map(i -> {
-            i.setName(updated.getName());
-            i.setPacked(updated.isPacked());
-            return itemRepo.save(i);
-        }).orElseThrow(() -> new RuntimeException("Item not found"));
+        revisions.bump(tripId, username);
+        return Map.of("updated", itemRepo.updatePacked(tripId, username, update.ids(), update.packed(), Instant.now()));
     }
 
-    public void deleteItem(Long tripId, Long itemId, String username) {
-        Trip trip = tripRepo.findById(tripId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found"));
-        if (!trip.getOwner().getUsername().equals(username)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: this trip does not belong to you.");
+    @Transactional
+    public Map<String, Integer> deleteItems(Long tripId, BulkDelete delete, String username) {
+        if (delete.ids() == null || delete.ids().isEmpty()) {
+            revisions.checkOwner(tripId, username);
+            return Map.of("deleted", 0);
         }
-        itemRepo.deleteById(itemId);
+        revisions.bump(tripId, username);
+        tombstoneRepo.recordItems(tripId, delete.ids(), Instant.now());
+        return Map.of("deleted", itemRepo.deleteInTrip(tripId, username, delete.ids()));
     }
 
+    @Transactional
+    public Item updateItem(Long tripId, Long itemId, Item updated, String username) {
+        revisions.bump(tripId, username);
+        if (itemRepo.updateInTrip(itemId, tripId, username, updated.getName(), updated.isPacked(), Instant.now()) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found");
+        }
+        // the bulk update bypassed the persistence context, so this reads the new version and stamp
+        return itemRepo.findByIdAndTripIdAndTripOwnerUsername(itemId, tripId, username).orElseThrow();
+    }
 
+    @Transactional
+    public void deleteItem(Long tripId, Long itemId, String username) {
+        revisions.bump(tripId, username);
+        tombstoneRepo.recordItems(tripId, List.of(itemId), Instant.now());
+        itemRepo.deleteInTrip(tripId, username, List.of(itemId));
+    }
 }
@@ -0,0 +1,29 @@
+package dev.hafil.travelCompanion.service;
+
+import dev.hafil.travelCompanion.dto.PageCursor;
+import dev.hafil.travelCompanion.exception.BadRequestException;
+
+/**
+ * Decodes the {@code cursor} request parameter for a listing. A token that
+ * does not decode, or that came from a listing with a different sort key,
+ * is a 400 rather than a silent restart from the first page.
+ */
+final class PageCursors {
+
+    private PageCursors() {
+    }
+
+    // trips are keyed by (fromDate, id) and carry a date; items and places by id alone
+    static PageCursor decode(String token, boolean dated) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (cursor != null && (cursor.date() != null) != dated) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return cursor;
+    }
+}
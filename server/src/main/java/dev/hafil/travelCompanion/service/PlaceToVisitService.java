@@ -1,83 +1,125 @@
 package dev.hafil.travelCompanion.service;
 
+import dev.hafil.travelCompanion.dto.BulkDelete;
+import dev.hafil.travelCompanion.dto.BulkPlaceUpdate;
+import dev.hafil.travelCompanion.dto.CursorPage;
+import dev.hafil.travelCompanion.dto.PageCursor;
 import dev.hafil.travelCompanion.model.PlaceToVisit;
 import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.repo.BulkInsertRepository;
 import dev.hafil.travelCompanion.repo.PlaceToVisitRepository;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
 import dev.hafil.travelCompanion.repo.TripRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PlaceToVisitService {
 
     private final TripRepository tripRepo;
     private final PlaceToVisitRepository placeRepo;
+    private final BulkInsertRepository bulkInsertRepo;
+    private final TombstoneRepository tombstoneRepo;
+    private final TripRevisionService revisions;
 
     public PlaceToVisitService(
             TripRepository tripRepo,
-            PlaceToVisitRepository placeRepo
+            PlaceToVisitRepository placeRepo,
+            BulkInsertRepository bulkInsertRepo,
+            TombstoneRepository tombstoneRepo,
+            TripRevisionService revisions
     ) {
         this.tripRepo = tripRepo;
         this.placeRepo = placeRepo;
+        this.bulkInsertRepo = bulkInsertRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.revisions = revisions;
     }
 
 
-    private Trip getOwnedTrip(Long tripId, String username) {
-        Trip trip = tripRepo.findById(tripId)
-                .orElseThrow(() ->
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip not found")
-                );
-
-        if (!trip.getOwner().getUsername().equals(username)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+    public List<PlaceToVisit> listPlaces(Long tripId, String username) {
+        List<PlaceToVisit> places = placeRepo.findByTripIdAndTripOwnerUsername(tripId, username);
+        if (places.isEmpty()) {
+            revisions.checkOwner(tripId, username);
         }
-
-        return trip;
+        return places;
     }
 
-
-    public List<PlaceToVisit> listPlaces(Long tripId, String username) {
-        return getOwnedTrip(tripId, username).getPlacesToVisit();
+    public CursorPage<PlaceToVisit> listPlacePage(Long tripId, String cursor, Integer limit, String username) {
+        revisions.checkOwner(tripId, username);
+        PageCursor after = PageCursors.decode(cursor, false);
+        int size = PageCursor.clampLimit(limit);
+        List<PlaceToVisit> rows = placeRepo.findByTripIdAndIdGreaterThanOrderByIdAsc(
+                tripId, after == null ? 0L : after.id(), Limit.of(size + 1));
+        return PageCursor.page(rows, size, p -> new PageCursor(null, p.getId()));
     }
 
+    @Transactional
     public PlaceToVisit addPlace(Long tripId, PlaceToVisit place, String username) {
-        Trip trip = getOwnedTrip(tripId, username);
-        place.setTrip(trip);
+        place.setRevision(revisions.next(tripId, username));
+        place.setTrip(tripRepo.getReferenceById(tripId));
         return placeRepo.save(place);
     }
 
+    @Transactional
     public List<PlaceToVisit> addPlaces(Long tripId, List<PlaceToVisit> places, String username) {
-        Trip trip = getOwnedTrip(tripId, username);
+        long revision = revisions.next(tripId, username);
+        Trip trip = tripRepo.getReferenceById(tripId);
         for (PlaceToVisit place : places) {
             place.setTrip(trip);
+            place.setRevision(revision);
+        }
+        return bulkInsertRepo.insertPlaces(trip, places);
+    }
+
+    @Transactional
+    public Map<String, Integer> updateVisitedBulk(Long tripId, BulkPlaceUpdate update, String username) {
+        if (update.ids() == null || update.ids().isEmpty()) {
+            revisions.checkOwner(tripId, username);
+            return Map.of("updated", 0);
         }
-        return placeRepo.saveAll(places);
+        revisions.bump(tripId, username);
+        return Map.of("updated", placeRepo.updateVisited(tripId, username, update.ids(), update.visited(), Instant.now()));
     }
 
+    @Transactional
+    public Map<String, Integer> deletePlaces(Long tripId, BulkDelete delete, String username) {
+        if (delete.ids() == null || delete.ids().isEmpty()) {
+            revisions.checkOwner(tripId, username);
+            return Map.of("deleted", 0);
+        }
+        revisions.bump(tripId, username);
+        tombstoneRepo.recordPlaces(tripId, delete.ids(), Instant.now());
+        return Map.of("deleted", placeRepo.deleteInTrip(tripId, username, delete.ids()));
+    }
+
+    @Transactional
     public PlaceToVisit updatePlace(
             Long tripId,
             Long placeId,
             PlaceToVisit updated,
             String username
     ) {
-        getOwnedTrip(tripId, username);
-
-        PlaceToVisit place = placeRepo.findById(placeId)
-                .orElseThrow(() ->
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Place not found")
-                );
-
-        place.setName(updated.getName());
-        place.setVisited(updated.isVisited());
-        return placeRepo.save(place);
+        revisions.bump(tripId, username);
+        if (placeRepo.updateInTrip(placeId, tripId, username, updated.getName(), updated.isVisited(), Instant.now()) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Place not found");
+        }
+        // the bulk update bypassed the persistence context, so this reads the new version and stamp
+        return placeRepo.findByIdAndTripIdAndTripOwnerUsername(placeId, tripId, username).orElseThrow();
     }
 
+    @Transactional
     public void deletePlace(Long tripId, Long placeId, String username) {
-        getOwnedTrip(tripId, username);
-        placeRepo.deleteById(placeId);
+        revisions.bump(tripId, username);
+        tombstoneRepo.recordPlaces(tripId, List.of(placeId), Instant.now());
+        placeRepo.deleteInTrip(tripId, username, List.of(placeId));
     }
 
 }
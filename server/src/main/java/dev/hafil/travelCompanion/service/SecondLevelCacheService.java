@@ -0,0 +1,93 @@
+package dev.hafil.travelCompanion.service;
+
+import dev.hafil.travelCompanion.config.SecondLevelCacheConfig;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Eviction and statistics for the Hibernate second-level cache. Both are
+ * no-ops when {@code travelCompanion.l2-cache.enabled} is off.
+ */
+@Service
+public class SecondLevelCacheService {
+
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.enabled = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().isSecondLevelCacheEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Drops a user and every cached username lookup. Hibernate already
+     * updates both on writes it sees; this also covers the window before the
+     * writing transaction's cache update lands.
+     */
+    public void evictUser(Long userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        sessionFactory.getCache().evictEntityData(User.class, userId);
+        sessionFactory.getCache().evictQueryRegion(SecondLevelCacheConfig.USERS_BY_USERNAME);
+    }
+
+    /**
+     * Drops one trip once the current transaction commits. Revision bumps
+     * bypass Hibernate so that they don't empty the whole trips region;
+     * evicting earlier would let a concurrent read cache the old row again.
+     */
+    public void evictTripAfterCommit(Long tripId) {
+        if (!isEnabled()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessionFactory.getCache().evictEntityData(Trip.class, tripId);
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> regions = new TreeMap<>();
+        for (String name : SecondLevelCacheConfig.REGIONS) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, Map.of(
+                        "hits", region.getHitCount(),
+                        "misses", region.getMissCount(),
+                        "puts", region.getPutCount(),
+                        "size", region.getElementCountInMemory()));
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        // counts stay at zero unless hibernate.generate_statistics is on
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        stats.put("hits", statistics.getSecondLevelCacheHitCount());
+        stats.put("misses", statistics.getSecondLevelCacheMissCount());
+        stats.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        stats.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        stats.put("regions", regions);
+        return stats;
+    }
+}
@@ -0,0 +1,143 @@
+package dev.hafil.travelCompanion.service;
+
+import dev.hafil.travelCompanion.dto.ChangeSet;
+import dev.hafil.travelCompanion.dto.Deletion;
+import dev.hafil.travelCompanion.dto.SyncToken;
+import dev.hafil.travelCompanion.dto.TripChange;
+import dev.hafil.travelCompanion.dto.TripStamp;
+import dev.hafil.travelCompanion.model.Tombstone;
+import dev.hafil.travelCompanion.repo.ItemRepository;
+import dev.hafil.travelCompanion.repo.PlaceToVisitRepository;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes feed for polling clients. The token records the version and
+ * revision of every trip the client has seen; a trip is reported again once
+ * either moves, together with its item and place rows and tombstones above
+ * the seen revision. Both counters are incremented under the trip's row
+ * lock, so a transaction that commits late cannot slip in below a stamp
+ * the client already holds.
+ */
+@Service
+public class TripChangesService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripChangesService.class);
+
+    private final TripRepository tripRepo;
+    private final ItemRepository itemRepo;
+    private final PlaceToVisitRepository placeRepo;
+    private final TombstoneRepository tombstoneRepo;
+    private final Duration tombstoneRetention;
+
+    public TripChangesService(
+            TripRepository tripRepo,
+            ItemRepository itemRepo,
+            PlaceToVisitRepository placeRepo,
+            TombstoneRepository tombstoneRepo,
+            @Value("${travelCompanion.sync.tombstone-retention-ms:2592000000}") long tombstoneRetentionMs) {
+        this.tripRepo = tripRepo;
+        this.itemRepo = itemRepo;
+        this.placeRepo = placeRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.tombstoneRetention = Duration.ofMillis(tombstoneRetentionMs);
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeSet changesSince(String username, String token) {
+        Instant now = Instant.now();
+        SyncToken since = SyncToken.decode(token);
+        // deletes older than the retention window may already be purged
+        boolean full = since == null || since.stamps() == null
+                || since.issuedAt().isBefore(now.minus(tombstoneRetention));
+        Map<Long, TripStamp> seen = full ? Map.of() : since.stamps();
+
+        List<TripChange> all = tripRepo.findChanges(username);
+        Map<Long, TripStamp> stamps = new LinkedHashMap<>();
+        List<TripChange> trips = new ArrayList<>();
+        for (TripChange trip : all) {
+            TripStamp stamp = new TripStamp(trip.version(), trip.revision());
+            stamps.put(trip.id(), stamp);
+            if (!stamp.equals(seen.get(trip.id()))) {
+                trips.add(trip);
+            }
+        }
+        // -1 for trips the client has not seen, whose rows all start at revision 0 or above
+        Map<Long, Long> after = new HashMap<>();
+        for (TripChange trip : trips) {
+            TripStamp old = seen.get(trip.id());
+            if (old == null || old.revision() < trip.revision()) {
+                after.put(trip.id(), old == null ? -1L : old.revision());
+            }
+        }
+        Set<Long> gone = new HashSet<>(seen.keySet());
+        gone.removeAll(stamps.keySet());
+
+        List<Deletion> deleted = List.of();
+        if (!full) {
+            Map<Long, Long> tombstoneAfter = new HashMap<>(after);
+            gone.forEach(id -> tombstoneAfter.put(id, seen.get(id).revision()));
+            deleted = tombstoneAfter.isEmpty() ? List.of() : tombstoneRepo
+                    .findInTrips(username, tombstoneAfter.keySet(), min(tombstoneAfter)).stream()
+                    .filter(t -> t.getKind() == Tombstone.Kind.TRIP || t.getRevision() > tombstoneAfter.get(t.getTripId()))
+                    .map(t -> new Deletion(t.getKind(), t.getEntityId(), t.getTripId(), t.getDeletedAt()))
+                    .toList();
+        }
+
+        return new ChangeSet(
+                new SyncToken(now, stamps).encode(),
+                full,
+                trips,
+                after.isEmpty() ? List.of() : itemRepo.findChangesInTrips(username, after.keySet(), min(after)).stream()
+                        .filter(i -> i.revision() > after.get(i.tripId()))
+                        .toList(),
+                after.isEmpty() ? List.of() : placeRepo.findChangesInTrips(username, after.keySet(), min(after)).stream()
+                        .filter(p -> p.revision() > after.get(p.tripId()))
+                        .toList(),
+                deleted);
+    }
+
+    // rows written before updated_at existed; the feed no longer selects on it, but clients display it
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillUpdatedAt() {
+        Instant now = Instant.now();
+        int stamped = tripRepo.stampMissingUpdatedAt(now)
+                + itemRepo.stampMissingUpdatedAt(now)
+                + placeRepo.stampMissingUpdatedAt(now);
+        if (stamped > 0) {
+            log.info("Stamped updated_at on {} rows that had none", stamped);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${travelCompanion.sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepo.purgeBefore(Instant.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private static long min(Map<Long, Long> revisions) {
+        return revisions.values().stream().mapToLong(Long::longValue).min().orElse(-1);
+    }
+}
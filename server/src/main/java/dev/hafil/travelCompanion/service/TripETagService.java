@@ -0,0 +1,68 @@
+package dev.hafil.travelCompanion.service;
+
+import dev.hafil.travelCompanion.dto.TripStamp;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for a trip and its item and place lists, derived from the
+ * trip's version and revision. The stamp is one indexed lookup, so an
+ * unchanged resource is answered with 304 before any entity is loaded or
+ * serialized.
+ */
+@Service
+public class TripETagService {
+
+    private final TripRepository tripRepo;
+
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+
+    public TripETagService(TripRepository tripRepo) {
+        this.tripRepo = tripRepo;
+    }
+
+    /**
+     * True when the client's copy is current; the 304 status and ETag are
+     * already set on the response. When false the ETag is still set and the
+     * caller renders the body as usual. Missing or foreign trips return
+     * false so the normal path produces its 404/403.
+     */
+    public boolean isNotModified(NativeWebRequest request, Long tripId, String username) {
+        Optional<TripStamp> stamp = tripRepo.findStamp(tripId, username);
+        if (stamp.isEmpty()) {
+            return false;
+        }
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            // revalidate on every use; set before Spring Security's no-store default
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        if (request.checkNotModified(stamp.get().etag())) {
+            notModified.incrementAndGet();
+            return true;
+        }
+        served.incrementAndGet();
+        return false;
+    }
+
+    public long notModifiedCount() {
+        return notModified.get();
+    }
+
+    public long servedCount() {
+        return served.get();
+    }
+
+    public double notModifiedRatio() {
+        long hit = notModified.get();
+        long total = hit + served.get();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.hafil.travelCompanion.service;
+
+import dev.hafil.travelCompanion.repo.TripRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+
+/**
+ * Per-trip revision counter for delta sync. Every item or place mutation
+ * bumps the trip's revision and stamps the rows it touches with the new
+ * value, so a client that has seen revision N only needs rows above N.
+ * The bump also moves the trip's {@code updatedAt}, so the changes feed
+ * reports the trip with its new revision.
+ */
+@Service
+public class TripRevisionService {
+
+    private final TripRepository tripRepo;
+    private final SecondLevelCacheService secondLevelCache;
+
+    public TripRevisionService(TripRepository tripRepo, SecondLevelCacheService secondLevelCache) {
+        this.tripRepo = tripRepo;
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    /**
+     * Bumps the revision of a trip owned by {@code username}. The UPDATE
+     * row-locks the trip until the caller's transaction ends, so concurrent
+     * mutations of the same trip get distinct revisions. Updates and
+     * tombstones written later in the transaction read the new value in the
+     * same statement, so it is not selected here.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(Long tripId, String username) {
+        if (tripRepo.incrementRevision(tripId, username, Instant.now()) == 0) {
+            checkOwner(tripId, username);
+        }
+        secondLevelCache.evictTripAfterCommit(tripId);
+    }
+
+    // for inserts, which need the value for the new rows
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(Long tripId, String username) {
+        bump(tripId, username);
+        return current(tripId, username);
+    }
+
+    public long current(Long tripId, String username) {
+        return tripRepo.findRevision(tripId, username).orElseGet(() -> {
+            checkOwner(tripId, username);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found");
+        });
+    }
+
+    // one query for the owner's username; only the failure paths need to tell 404 from 403
+    public void checkOwner(Long tripId, String username) {
+        String owner = tripRepo.findOwnerUsernameById(tripId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip Not Found"));
+        if (!owner.equals(username)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: this trip does not belong to you.");
+        }
+    }
+}
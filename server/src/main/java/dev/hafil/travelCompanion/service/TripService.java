@@ -1,11 +1,22 @@
 package dev.hafil.travelCompanion.service;
 
+import dev.hafil.travelCompanion.dto.CursorPage;
+import dev.hafil.travelCompanion.dto.PageCursor;
+import dev.hafil.travelCompanion.dto.TripSummary;
+import dev.hafil.travelCompanion.dto.TripUpdate;
+import dev.hafil.travelCompanion.exception.ConflictException;
+import dev.hafil.travelCompanion.exception.PreconditionRequiredException;
+import dev.hafil.travelCompanion.model.Tombstone;
 import dev.hafil.travelCompanion.model.Trip;
 import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
 import dev.hafil.travelCompanion.repo.TripRepository;
 import dev.hafil.travelCompanion.repo.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -13,14 +24,29 @@ public class TripService {
 
     private final TripRepository tripRepo;
     private final UserRepository userRepo;
+    private final TombstoneRepository tombstoneRepo;
 
-    public TripService(TripRepository tripRepo, UserRepository userRepo) {
+    public TripService(TripRepository tripRepo, UserRepository userRepo, TombstoneRepository tombstoneRepo) {
         this.tripRepo = tripRepo;
         this.userRepo = userRepo;
+        this.tombstoneRepo = tombstoneRepo;
     }
 
     public List<Trip> getAllTripsForUser(String username) {
-        return tripRepo.findByOwnerUsername(username);
+        return tripRepo.findAggregatesByOwnerUsername(username);
+    }
+
+    public CursorPage<Trip> getTripPageForUser(String username, String cursor, Integer limit) {
+        PageCursor after = PageCursors.decode(cursor, true);
+        int size = PageCursor.clampLimit(limit);
+        List<Trip> rows = after == null
+                ? tripRepo.findByOwnerUsernameOrderByFromDateAscIdAsc(username, Limit.of(size + 1))
+                : tripRepo.findPageAfter(username, after.date(), after.id(), Limit.of(size + 1));
+        return PageCursor.page(rows, size, t -> new PageCursor(t.getFromDate(), t.getId()));
+    }
+
+    public List<TripSummary> getTripSummariesForUser(String username) {
+        return tripRepo.findSummariesByOwnerUsername(username);
     }
 
     public Trip createTrip(Trip trip, String username) {
@@ -41,7 +67,12 @@ public class TripService {
         return t;
     }
 
-    public Trip updateTrip(Long id, Trip updated, String username) {
+    // a writer that raced past the check still fails at flush on the @Version column
+    @Transactional
+    public Trip updateTrip(Long id, TripUpdate updated, String username) {
+        if (updated.version() == null) {
+            throw new PreconditionRequiredException("version is required to update a trip");
+        }
         Trip t = tripRepo.findById(id)
                 .orElseThrow(() -> new dev.hafil.travelCompanion.exception.ResourceNotFoundException(
                         "Trip Not Found with id: " + id));
@@ -50,11 +81,16 @@ public class TripService {
             throw new org.springframework.security.access.AccessDeniedException(
                     "Access denied: this trip does not belong to you.");
         }
-        t.setName(updated.getName());
-        t.setDestination(updated.getDestination());
+        if (t.getVersion() != updated.version()) {
+            throw new ConflictException("Trip was modified by another request (version "
+                    + t.getVersion() + ", sent " + updated.version() + ")");
+        }
+        t.setName(updated.name());
+        t.setDestination(updated.destination());
         return tripRepo.save(t);
     }
 
+    @Transactional
     public void deleteTrip(Long id, String username) {
         Trip t = tripRepo.findById(id)
                 .orElseThrow(() -> new dev.hafil.travelCompanion.exception.ResourceNotFoundException(
@@ -63,6 +99,8 @@ public class TripService {
             throw new org.springframework.security.access.AccessDeniedException(
                     "Access denied: this trip does not belong to you.");
         }
+        tombstoneRepo.save(new Tombstone(Tombstone.Kind.TRIP, id, id, t.getOwner().getId(), t.getRevision(),
+                Instant.now()));
         tripRepo.deleteById(id);
     }
 }
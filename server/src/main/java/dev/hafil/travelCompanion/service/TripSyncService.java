@@ -0,0 +1,111 @@
+package dev.hafil.travelCompanion.service;
+
+import dev.hafil.travelCompanion.dto.FlagChange;
+import dev.hafil.travelCompanion.dto.TripBatchUpdate;
+import dev.hafil.travelCompanion.dto.TripDelta;
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.PlaceToVisit;
+import dev.hafil.travelCompanion.repo.ItemRepository;
+import dev.hafil.travelCompanion.repo.PlaceToVisitRepository;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class TripSyncService {
+
+    private final ItemRepository itemRepo;
+    private final PlaceToVisitRepository placeRepo;
+    private final TombstoneRepository tombstoneRepo;
+    private final TripRevisionService revisions;
+
+    public TripSyncService(
+            ItemRepository itemRepo,
+            PlaceToVisitRepository placeRepo,
+            TombstoneRepository tombstoneRepo,
+            TripRevisionService revisions) {
+        this.itemRepo = itemRepo;
+        this.placeRepo = placeRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.revisions = revisions;
+    }
+
+    /**
+     * Applies all packed/visited changes with one UPDATE per flag and returns
+     * the rows changed by this batch, or everything since
+     * {@code batch.since()} if given.
+     */
+    @Transactional
+    public TripDelta applyBatch(Long tripId, TripBatchUpdate batch, String username) {
+        Map<Long, Boolean> items = collapse(batch.items());
+        Map<Long, Boolean> places = collapse(batch.places());
+        if (items.isEmpty() && places.isEmpty()) {
+            return delta(tripId, batch.since(), username);
+        }
+
+        revisions.bump(tripId, username);
+        Instant now = Instant.now();
+        if (!items.isEmpty()) {
+            itemRepo.applyPacked(tripId, username, new ArrayList<>(items.keySet()), idsSetTo(items), now);
+        }
+        if (!places.isEmpty()) {
+            placeRepo.applyVisited(tripId, username, new ArrayList<>(places.keySet()), idsSetTo(places), now);
+        }
+        if (batch.since() != null) {
+            return delta(tripId, batch.since(), username);
+        }
+
+        List<Item> changedItems = items.isEmpty()
+                ? List.of() : itemRepo.findByTripIdAndIdInOrderByIdAsc(tripId, items.keySet());
+        List<PlaceToVisit> changedPlaces = places.isEmpty()
+                ? List.of() : placeRepo.findByTripIdAndIdInOrderByIdAsc(tripId, places.keySet());
+        // every changed row carries the new revision; only a batch of unknown ids needs to look it up
+        long revision = Stream.concat(
+                        changedItems.stream().map(Item::getRevision),
+                        changedPlaces.stream().map(PlaceToVisit::getRevision))
+                .findFirst()
+                .orElseGet(() -> revisions.current(tripId, username));
+        return new TripDelta(revision, changedItems, changedPlaces, List.of());
+    }
+
+    @Transactional(readOnly = true)
+    public TripDelta delta(Long tripId, Long since, String username) {
+        long revision = revisions.current(tripId, username);
+        long after = since == null ? -1 : since;
+        if (after >= revision) {
+            return new TripDelta(revision, List.of(), List.of(), List.of());
+        }
+        return new TripDelta(revision,
+                itemRepo.findByTripIdAndRevisionGreaterThanOrderByIdAsc(tripId, after),
+                placeRepo.findByTripIdAndRevisionGreaterThanOrderByIdAsc(tripId, after),
+                // a client that has seen nothing has no deleted rows to drop
+                after < 0 ? List.of() : tombstoneRepo.findDeletionsInTripAfter(tripId, after));
+    }
+
+    // the last change for an id wins
+    private static Map<Long, Boolean> collapse(List<FlagChange> changes) {
+        Map<Long, Boolean> latest = new LinkedHashMap<>();
+        if (changes != null) {
+            for (FlagChange change : changes) {
+                if (change.id() != null) {
+                    latest.put(change.id(), change.value());
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static List<Long> idsSetTo(Map<Long, Boolean> changes) {
+        return changes.entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
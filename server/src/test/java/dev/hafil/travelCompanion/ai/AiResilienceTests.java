@@ -0,0 +1,275 @@
+package dev.hafil.travelCompanion.ai;
+
+import dev.hafil.travelCompanion.exception.AiUnavailableException;
+import dev.hafil.travelCompanion.exception.TooManyRequestsException;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.service.ChatService;
+import dev.hafil.travelCompanion.support.StubChatModel;
+import dev.hafil.travelCompanion.support.StubChatModelConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "stub.chat.latency-ms=0",
+        "travelCompanion.ai.resilience.timeout-ms=300",
+        "travelCompanion.ai.resilience.max-concurrent=" + AiResilienceTests.MAX_CONCURRENT,
+        "travelCompanion.ai.resilience.max-wait-ms=50",
+        "travelCompanion.ai.resilience.circuit.failure-threshold=2",
+        "travelCompanion.ai.resilience.circuit.open-ms=" + AiResilienceTests.OPEN_MS,
+        "travelCompanion.ai.resilience.rate-limit.per-user.capacity=3",
+        "travelCompanion.ai.resilience.rate-limit.per-user.refill-per-minute=1"
+})
+@AutoConfigureMockMvc
+@Import(StubChatModelConfiguration.class)
+@ActiveProfiles("test")
+class AiResilienceTests {
+
+    static final long OPEN_MS = 500;
+    static final int MAX_CONCURRENT = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StubChatModel model;
+
+    @Autowired
+    private AiSuggestionService suggestionService;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private AiCallGuard guard;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        model.setFailing(false);
+        model.setLatency(Duration.ZERO);
+        model.setResponse(StubChatModel.RESPONSE);
+        if (guard.circuitState() != CircuitBreaker.State.CLOSED) {
+            Thread.sleep(OPEN_MS + 100);
+            chatService.sayHello(null);
+        }
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void openCircuitServesFallbackSuggestionsUntilATrialCallSucceeds() throws Exception {
+        // a good answer for Lisbon, remembered for later trips there
+        assertThat(suggestionService.generateSuggestions(input("Lisbon week", "Lisbon", List.of()), null).isFallback())
+                .isFalse();
+
+        model.setFailing(true);
+        assertThat(suggestionService.generateSuggestions(input("Failing 1", "Oslo", List.of()), null).isFallback())
+                .isTrue();
+        assertThat(suggestionService.generateSuggestions(input("Failing 2", "Oslo", List.of()), null).isFallback())
+                .isTrue();
+        assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int callsWhileOpen = model.callCount();
+        AiSuggestionResponse reused = suggestionService.generateSuggestions(
+                input("Another Lisbon trip", "Lisbon", List.of("Old Town")), null);
+        AiSuggestionResponse heuristic = suggestionService.generateSuggestions(
+                input("Beach week", "Faro", List.of()), null);
+        assertThat(model.callCount()).isEqualTo(callsWhileOpen);
+        assertThat(reused.isFallback()).isTrue();
+        assertThat(reused.getPlaces()).containsExactly("Harbour Walk");
+        assertThat(heuristic.getPlaces()).isEmpty();
+        assertThat(heuristic.getItems()).contains("Passport or ID", "Sunscreen", "Swimsuit");
+
+        model.setFailing(false);
+        Thread.sleep(OPEN_MS + 100);
+        assertThat(suggestionService.generateSuggestions(input("Recovered", "Oslo", List.of()), null).isFallback())
+                .isFalse();
+        assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        assertThat(transitions("closed", "open")).isPositive();
+        assertThat(transitions("open", "half_open")).isPositive();
+        assertThat(transitions("half_open", "closed")).isPositive();
+    }
+
+    @Test
+    void slowModelIsCutOffWith503() throws Exception {
+        String token = tokenFor("slow-model-user");
+        model.setLatency(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        mockMvc.perform(get("/api/ai").header("Authorization", "Bearer " + token))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.counter("travelcompanion.ai.rejections", "operation", "hello", "reason", "timeout")
+                .count()).isPositive();
+    }
+
+    @Test
+    void timedOutCallIsLeftRunningAndReturnsItsSlotOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        assertThatThrownBy(() -> guard.call("hold", null, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+            return new ChatResponse(List.of());
+        })).isInstanceOf(AiUnavailableException.class);
+
+        assertThat(guard.slotsInUse()).isEqualTo(1);
+        release.countDown();
+        while (guard.slotsInUse() > 0) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertThat(guard.slotsInUse()).isZero();
+        assertThat(interrupted).isFalse();
+    }
+
+    @Test
+    void perUserRateLimitReturns429WithRetryAfter() throws Exception {
+        String token = tokenFor("rate-limited-user");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/ai").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/ai").header("Authorization", "Bearer " + token))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+
+        // other users have their own bucket
+        mockMvc.perform(get("/api/ai").header("Authorization", "Bearer " + tokenFor("other-user")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void callsRefusedByAFullBulkheadCostNoTokens() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holders = Executors.newFixedThreadPool(MAX_CONCURRENT);
+        try {
+            for (int i = 0; i < MAX_CONCURRENT; i++) {
+                holders.submit(() -> guard.call("hold", null, () -> {
+                    await(release);
+                    return new ChatResponse(List.of());
+                }));
+            }
+            while (guard.slotsInUse() < MAX_CONCURRENT) {
+                Thread.sleep(5);
+            }
+
+            for (int i = 0; i < 5; i++) {
+                assertThatThrownBy(() -> chatService.sayHello("bulkhead-user"))
+                        .isInstanceOf(AiUnavailableException.class);
+            }
+        } finally {
+            release.countDown();
+            holders.shutdown();
+            holders.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            chatService.sayHello("bulkhead-user");
+        }
+        assertThatThrownBy(() -> chatService.sayHello("bulkhead-user"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void sharedSuggestionCallsStillChargeEveryCaller() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            chatService.sayHello("drained-user");
+        }
+        model.setLatency(Duration.ofMillis(200));
+        SuggestionInput input = input("Shared trip", "Porto", List.of());
+        ExecutorService leader = Executors.newSingleThreadExecutor();
+        try {
+            Future<AiSuggestionResponse> leaderResult = leader.submit(
+                    () -> suggestionService.generateSuggestions(input, "leader-user"));
+            while (suggestionService.getSingleFlight().inFlightCount() == 0) {
+                Thread.sleep(5);
+            }
+
+            // joining someone else's call is not a way around the caller's own limit
+            assertThatThrownBy(() -> suggestionService.generateSuggestions(input, "drained-user"))
+                    .isInstanceOf(TooManyRequestsException.class);
+            assertThat(leaderResult.get(5, TimeUnit.SECONDS).isFallback()).isFalse();
+        } finally {
+            leader.shutdownNow();
+        }
+        assertThat(suggestionService.getSingleFlight().followerCount()).isZero();
+    }
+
+    @Test
+    void malformedModelOutputServesTheFallbackOnBothPaths() {
+        model.setResponse("{\"places\": [\"Cathedral\" \"Ribeira\"], \"items\": []}");
+
+        AiSuggestionResponse blocking = suggestionService.generateSuggestions(
+                input("Malformed", "Faro", List.of()), null);
+        List<SuggestionEvent> streamed = suggestionService.streamSuggestions(
+                input("Malformed stream", "Faro", List.of()), null).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(blocking.isFallback()).isTrue();
+        // what was streamed before the bad chunk stays, the fallback fills in the rest
+        assertThat(streamed).extracting(SuggestionEvent::value).startsWith("Cathedral").contains("Passport or ID");
+        assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String tokenFor(String username) {
+        userRepo.save(new User(username, "password"));
+        return jwtService.generateToken(username);
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.counter("travelcompanion.ai.circuit.transitions", "from", from, "to", to).count();
+    }
+
+    private static SuggestionInput input(String tripName, String destination, List<String> places) {
+        return new SuggestionInput(tripName, destination, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5), 5,
+                places, List.of());
+    }
+}
@@ -0,0 +1,102 @@
+package dev.hafil.travelCompanion.ai;
+
+import dev.hafil.travelCompanion.model.AiSuggestionCacheEntry;
+import dev.hafil.travelCompanion.repo.AiSuggestionCacheRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AiSuggestionCacheTests {
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        AiSuggestionCache cache = new AiSuggestionCache(null, 10, 60_000, false);
+
+        assertThat(cache.get("a")).isNull();
+        cache.put("a", response("Old Town"));
+
+        assertThat(cache.get("a").getPlaces()).containsExactly("Old Town");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(2);
+        assertThat(cache.hitRate()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    void peekDoesNotCount() {
+        AiSuggestionCache cache = new AiSuggestionCache(null, 10, 60_000, false);
+        cache.put("a", response("Old Town"));
+
+        assertThat(cache.peek("a")).isNotNull();
+        assertThat(cache.peek("b")).isNull();
+        assertThat(cache.hitCount()).isZero();
+        assertThat(cache.missCount()).isZero();
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        AiSuggestionCache cache = new AiSuggestionCache(null, 10, 50, false);
+        cache.put("a", response("Old Town"));
+
+        Thread.sleep(150);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void persistedEntriesOlderThanTheTtlAreIgnored() {
+        AiSuggestionCacheRepository repository = mock(AiSuggestionCacheRepository.class);
+        when(repository.findById("fresh")).thenReturn(Optional.of(
+                new AiSuggestionCacheEntry("fresh", "[\"Old Town\"]", "[]", Instant.now())));
+        when(repository.findById("stale")).thenReturn(Optional.of(
+                new AiSuggestionCacheEntry("stale", "[\"Harbour\"]", "[]", Instant.now().minus(Duration.ofHours(1)))));
+        AiSuggestionCache cache = new AiSuggestionCache(repository, 10, 60_000, true);
+
+        assertThat(cache.get("fresh").getPlaces()).containsExactly("Old Town");
+        assertThat(cache.get("stale")).isNull();
+        assertThat(cache.persistentHitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fingerprintIgnoresNameOrderButNotContent() {
+        SuggestionInput a = input(List.of("Old Town", "Harbour"), List.of("Sunscreen"));
+        SuggestionInput reordered = input(List.of("Harbour", "Old Town"), List.of("Sunscreen"));
+        SuggestionInput other = input(List.of("Old Town"), List.of("Sunscreen"));
+
+        assertThat(a.fingerprint()).isEqualTo(reordered.fingerprint()).hasSize(64);
+        assertThat(a.fingerprint()).isNotEqualTo(other.fingerprint());
+    }
+
+    @Test
+    void namelessPlacesAndItemsAreLeftOut() {
+        SuggestionInput withNulls = input(Arrays.asList("Old Town", null), Arrays.asList(null, "Sunscreen"));
+
+        assertThat(withNulls.placeNames()).containsExactly("Old Town");
+        assertThat(withNulls.itemNames()).containsExactly("Sunscreen");
+        assertThat(withNulls.fingerprint())
+                .isEqualTo(input(List.of("Old Town"), List.of("Sunscreen")).fingerprint());
+    }
+
+    private static AiSuggestionResponse response(String place) {
+        AiSuggestionResponse response = new AiSuggestionResponse();
+        response.setPlaces(List.of(place));
+        response.setItems(List.of());
+        return response;
+    }
+
+    private static SuggestionInput input(List<String> places, List<String> items) {
+        return new SuggestionInput("Lisbon weekend", "Lisbon",
+                LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 3), 3, places, items);
+    }
+}
@@ -0,0 +1,40 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTests {
+
+    private final CircuitBreaker circuit = new CircuitBreaker(1, 0, (from, to) -> { });
+
+    @Test
+    void onlyTheTrialCallDecidesAHalfOpenCircuit() {
+        CircuitBreaker.Permit slow = circuit.tryAcquire();
+        circuit.onFailure(circuit.tryAcquire());
+        assertThat(circuit.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        CircuitBreaker.Permit trial = circuit.tryAcquire();
+        assertThat(trial.trial()).isTrue();
+        assertThat(circuit.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        // admitted while closed, so its late success must neither close the circuit nor free the trial slot
+        circuit.onSuccess(slow);
+        assertThat(circuit.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuit.tryAcquire()).isNull();
+
+        circuit.onSuccess(trial);
+        assertThat(circuit.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lateFailureFromAnEarlierStateIsIgnored() {
+        CircuitBreaker.Permit slow = circuit.tryAcquire();
+        circuit.onFailure(circuit.tryAcquire());
+        circuit.onSuccess(circuit.tryAcquire());
+        assertThat(circuit.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuit.onFailure(slow);
+        assertThat(circuit.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,133 @@
+package dev.hafil.travelCompanion.ai;
+
+import dev.hafil.travelCompanion.exception.AiUnavailableException;
+import dev.hafil.travelCompanion.exception.MalformedAiResponseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalSuggestionParserTests {
+
+    private static final String RESPONSE = """
+            {"places": ["Old Town", "Harbour Walk"], "items": ["Sunscreen", "Rain jacket"]}""";
+
+    private static final List<SuggestionEvent> EXPECTED = List.of(
+            new SuggestionEvent(SuggestionEvent.PLACE, "Old Town"),
+            new SuggestionEvent(SuggestionEvent.PLACE, "Harbour Walk"),
+            new SuggestionEvent(SuggestionEvent.ITEM, "Sunscreen"),
+            new SuggestionEvent(SuggestionEvent.ITEM, "Rain jacket"));
+
+    @Test
+    void everySplitPointGivesTheSameEvents() {
+        for (int split = 1; split < RESPONSE.length(); split++) {
+            IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+            List<SuggestionEvent> events = feed(parser, RESPONSE.substring(0, split), RESPONSE.substring(split));
+
+            assertThat(events).as("split at %d", split).isEqualTo(EXPECTED);
+            assertThat(parser.isFinished()).isTrue();
+        }
+    }
+
+    @Test
+    void elementsAreEmittedAsSoonAsTheirClosingQuoteArrives() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        assertThat(parser.feed("{\"places\": [\"Old To")).isEmpty();
+        assertThat(parser.feed("wn\"")).containsExactly(new SuggestionEvent(SuggestionEvent.PLACE, "Old Town"));
+        assertThat(parser.isFinished()).isFalse();
+    }
+
+    @Test
+    void markdownFencesAreIgnored() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        List<SuggestionEvent> events = feed(parser, "```js", "on\n" + RESPONSE.substring(0, 20),
+                RESPONSE.substring(20) + "\n``", "`\nHave a nice trip!");
+
+        assertThat(events).isEqualTo(EXPECTED);
+        assertThat(parser.isFinished()).isTrue();
+    }
+
+    @Test
+    void escapedQuotesAndBracesInsideStringsAreText() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        List<SuggestionEvent> events = feed(parser,
+                "{\"places\": [\"Joe's \\\"Bar\\\" {", "upstairs}\", \"[Museum]\\\\\"], ",
+                "\"items\": [\"}\"]}");
+
+        assertThat(events).containsExactly(
+                new SuggestionEvent(SuggestionEvent.PLACE, "Joe's \"Bar\" {upstairs}"),
+                new SuggestionEvent(SuggestionEvent.PLACE, "[Museum]\\"),
+                new SuggestionEvent(SuggestionEvent.ITEM, "}"));
+        assertThat(parser.isFinished()).isTrue();
+    }
+
+    @Test
+    void onlyTopLevelStringsOfTheTwoArraysAreEmitted() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        List<SuggestionEvent> events = feed(parser,
+                "{\"theme\": {\"places\": [\"Nested\"], \"name\": \"Relaxing\"}, ",
+                "\"places\": [\"Old Town\", {\"name\": \"Ignored\", \"tags\": [\"x\"]}, [\"Also ignored\"], ",
+                "\"Harbour Walk\"], \"count\": 2, \"items\": [\"Sunscreen\"]}");
+
+        assertThat(events).containsExactly(
+                new SuggestionEvent(SuggestionEvent.PLACE, "Old Town"),
+                new SuggestionEvent(SuggestionEvent.PLACE, "Harbour Walk"),
+                new SuggestionEvent(SuggestionEvent.ITEM, "Sunscreen"));
+        assertThat(parser.isFinished()).isTrue();
+    }
+
+    @Test
+    void truncatedFinalElementIsNotEmittedAndTheParseIsUnfinished() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        List<SuggestionEvent> events = feed(parser, "{\"places\": [\"Old Town\"], \"items\": [\"Sunscreen\", \"Rain ja");
+
+        assertThat(events).containsExactly(
+                new SuggestionEvent(SuggestionEvent.PLACE, "Old Town"),
+                new SuggestionEvent(SuggestionEvent.ITEM, "Sunscreen"));
+        assertThat(parser.isFinished()).isFalse();
+    }
+
+    @Test
+    void inputAfterTheClosingBraceIsIgnored() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+        feed(parser, RESPONSE);
+
+        assertThat(parser.feed("{\"places\": [\"Extra\"]}")).isEmpty();
+    }
+
+    @Test
+    void malformedJsonIsAModelFailure() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        // an AiUnavailableException, so the streaming pipeline switches to the fallback
+        assertThatThrownBy(() -> parser.feed("{\"places\": [\"Old Town\" \"Harbour\"]}"))
+                .isInstanceOf(MalformedAiResponseException.class)
+                .isInstanceOf(AiUnavailableException.class);
+    }
+
+    @Test
+    void malformedJsonMidStreamFailsAfterTheEarlierEvents() {
+        IncrementalSuggestionParser parser = new IncrementalSuggestionParser();
+
+        assertThat(parser.feed("{\"places\": [\"Old Town\", ")).hasSize(1);
+        assertThatThrownBy(() -> parser.feed("\"Harbour\" \"Castle\"]}"))
+                .isInstanceOf(MalformedAiResponseException.class);
+    }
+
+    private static List<SuggestionEvent> feed(IncrementalSuggestionParser parser, String... chunks) {
+        List<SuggestionEvent> events = new ArrayList<>();
+        for (String chunk : chunks) {
+            events.addAll(parser.feed(chunk));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,55 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptCompactorTests {
+
+    private static final int BUDGET = 300;
+
+    private final PromptCompactor compactor = new PromptCompactor(BUDGET, 60);
+
+    @Test
+    void namesAreNormalisedAndDeduplicated() {
+        PromptCompactor.CompactPrompt prompt = compactor.compact(input(
+                Arrays.asList("  Old   Town ", "old town", "", null, "Harbour\tWalk", "harbour \n walk"),
+                List.of("Sunscreen", "SUNSCREEN", "Rain jacket")));
+
+        assertThat(prompt.text())
+                .contains("Existing places, do not suggest: Old Town; Harbour Walk\n")
+                .contains("Existing items, do not suggest: Sunscreen; Rain jacket\n");
+        assertThat(prompt.omittedPlaces()).isZero();
+        assertThat(prompt.omittedItems()).isZero();
+    }
+
+    @Test
+    void longListsAreCappedToTheTokenBudget() {
+        List<String> items = IntStream.range(0, 1000).mapToObj(i -> "Packing item number " + i).toList();
+        PromptCompactor.CompactPrompt small = compactor.compact(input(List.of("Old Town"), items.subList(0, 10)));
+        PromptCompactor.CompactPrompt large = compactor.compact(input(List.of("Old Town"), items));
+
+        assertThat(large.omittedItems()).isPositive();
+        assertThat(large.text()).containsPattern("; and " + large.omittedItems() + " more\\n");
+        // the unused place budget went to the items
+        assertThat(large.estimatedTokens()).isLessThanOrEqualTo(small.estimatedTokens() + BUDGET);
+        assertThat(PromptCompactor.estimateTokens(large.text())).isEqualTo(large.estimatedTokens());
+    }
+
+    @Test
+    void tokenEstimateCountsWordPiecesAndPunctuation() {
+        assertThat(PromptCompactor.estimateTokens("")).isZero();
+        assertThat(PromptCompactor.estimateTokens("Sun hat")).isEqualTo(2);
+        assertThat(PromptCompactor.estimateTokens("Sunscreen; hat")).isEqualTo(5);
+    }
+
+    private static SuggestionInput input(List<String> places, List<String> items) {
+        return new SuggestionInput("Relaxing week", "Lisbon",
+                LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 7), 7, places, items);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForOneKeyShareTheLeadersResult() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("lisbon", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "answer";
+            })));
+        }
+        awaitCallers();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("answer");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(singleFlight.leaderCount()).isEqualTo(1);
+        assertThat(singleFlight.followerCount()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("oslo", () -> {
+                await(release);
+                throw new IllegalStateException("model down");
+            })));
+        }
+        awaitCallers();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("model down");
+        }
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void differentKeysAndLaterCallsRunSeparately() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("a", () -> "a" + calls.incrementAndGet());
+        singleFlight.execute("b", () -> "b" + calls.incrementAndGet());
+        String again = singleFlight.execute("a", () -> "a" + calls.incrementAndGet());
+
+        assertThat(again).isEqualTo("a3");
+        assertThat(singleFlight.leaderCount()).isEqualTo(3);
+        assertThat(singleFlight.followerCount()).isZero();
+    }
+
+    // the leader holds the key until released, so every other caller has joined as a follower once counted
+    private void awaitCallers() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.leaderCount() + singleFlight.followerCount() < CALLERS && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.hafil.travelCompanion.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionDeduplicatorTests {
+
+    private final SuggestionDeduplicator deduplicator = new SuggestionDeduplicator(0.75);
+
+    @Test
+    void spellingVariantsOfExistingEntriesAreDropped() {
+        AiSuggestionResponse response = new AiSuggestionResponse();
+        response.setPlaces(List.of("old town", "Old Town Square", "Castle"));
+        response.setItems(List.of("sun screen", "Rain jackets", "Tooth brushes", "Hat"));
+
+        deduplicator.dedupe(response, input(List.of("Old Town"), List.of("Sunscreen", "Rain jacket", "Toothbrush")));
+
+        assertThat(response.getPlaces()).containsExactly("Old Town Square", "Castle");
+        assertThat(response.getItems()).containsExactly("Hat");
+    }
+
+    @Test
+    void suggestionsAlreadyOnALargeTripAreFilteredAndRepeatsCollapsed() {
+        List<String> items = IntStream.range(0, 1000).mapToObj(i -> "Packing item number " + i).toList();
+        AiSuggestionResponse response = new AiSuggestionResponse();
+        response.setPlaces(List.of(" Castle ", "castle", "Castles"));
+        response.setItems(List.of("Packing item number 999", "Hat", "Hats", "Sun hat"));
+
+        deduplicator.dedupe(response, input(List.of(), items));
+
+        assertThat(response.getPlaces()).containsExactly("Castle");
+        assertThat(response.getItems()).containsExactly("Hat", "Sun hat");
+    }
+
+    @Test
+    void streamFilterRemembersWhatItAccepted() {
+        Predicate<String> isNew = deduplicator.streamFilter(List.of("Sunscreen"));
+
+        assertThat(isNew.test("Sun-screen")).isFalse();
+        assertThat(isNew.test("Beach towel")).isTrue();
+        assertThat(isNew.test("beach towels")).isFalse();
+        assertThat(isNew.test("  ")).isFalse();
+        assertThat(isNew.test(null)).isFalse();
+    }
+
+    private static SuggestionInput input(List<String> places, List<String> items) {
+        return new SuggestionInput("Relaxing week", "Lisbon",
+                LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 7), 7, places, items);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.hafil.travelCompanion.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionFallbackTests {
+
+    private final SuggestionFallback fallback = new SuggestionFallback(new SimpleMeterRegistry(), 10, 60_000);
+
+    @Test
+    void namelessEntriesAreSkippedOnBothSides() {
+        AiSuggestionResponse remembered = new AiSuggestionResponse();
+        remembered.setPlaces(Arrays.asList("Belem Tower", null, "Alfama"));
+        remembered.setItems(Arrays.asList(null, "Comfortable shoes"));
+        fallback.remember(input(List.of(), List.of()), remembered);
+
+        AiSuggestionResponse reused = fallback.suggest(input(List.of("alfama"), List.of("Sunscreen")));
+
+        assertThat(reused.isFallback()).isTrue();
+        assertThat(reused.getPlaces()).containsExactly("Belem Tower");
+        assertThat(reused.getItems()).containsExactly("Comfortable shoes");
+    }
+
+    private static SuggestionInput input(List<String> places, List<String> items) {
+        return new SuggestionInput("Lisbon week", "Lisbon", LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5), 5,
+                places, items);
+    }
+}
@@ -0,0 +1,128 @@
+package dev.hafil.travelCompanion.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.support.StubChatModelConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "stub.chat.latency-ms=0",
+        "travelCompanion.ai.resilience.rate-limit.per-user.capacity=100"
+})
+@AutoConfigureMockMvc
+@Import(StubChatModelConfiguration.class)
+@ActiveProfiles("test")
+class SuggestionJobTests {
+
+    private static final Pattern TERMINAL_EVENT = Pattern.compile("event:(done|failed)\\n");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private Long tripId;
+    private Long otherTripId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("job-user", "password"));
+        tripId = tripRepo.save(trip("Lisbon week", owner)).getId();
+        otherTripId = tripRepo.save(trip("Porto weekend", owner)).getId();
+        token = jwtService.generateToken("job-user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void jobIsOnlyVisibleUnderItsOwnTrip() throws Exception {
+        String jobId = submit();
+
+        mockMvc.perform(get("/api/trips/" + tripId + "/suggest/jobs/" + jobId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tripId").value(tripId))
+                .andExpect(jsonPath("$.username").doesNotExist());
+        mockMvc.perform(get("/api/trips/" + otherTripId + "/suggest/jobs/" + jobId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/trips/" + otherTripId + "/suggest/jobs/" + jobId + "/events")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void subscribersGetTheTerminalEventExactlyOnce() throws Exception {
+        // subscribing right after submitting races the worker finishing the job
+        for (int i = 0; i < 20; i++) {
+            String jobId = submit();
+            MvcResult events = mockMvc.perform(get("/api/trips/" + tripId + "/suggest/jobs/" + jobId + "/events")
+                            .header("Authorization", "Bearer " + token))
+                    .andReturn();
+            events.getAsyncResult(5_000);
+
+            String body = events.getResponse().getContentAsString();
+            Matcher terminal = TERMINAL_EVENT.matcher(body);
+            int count = 0;
+            while (terminal.find()) {
+                count++;
+            }
+            assertThat(count).as(body).isEqualTo(1);
+            assertThat(body).doesNotContain("job-user");
+        }
+    }
+
+    private String submit() throws Exception {
+        String body = mockMvc.perform(post("/api/trips/" + tripId + "/suggest/jobs")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode job = objectMapper.readTree(body);
+        assertThat(job.has("username")).isFalse();
+        return job.get("id").asText();
+    }
+
+    private static Trip trip(String name, User owner) {
+        Trip trip = new Trip(name, "Lisbon", LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5));
+        trip.setOwner(owner);
+        return trip;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.hafil.travelCompanion.config;
+
+import dev.hafil.travelCompanion.support.StubChatModelConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"management.server.port=0", "management.server.address=127.0.0.1", "stub.chat.latency-ms=0"})
+@AutoConfigureObservability
+@Import(StubChatModelConfiguration.class)
+@ActiveProfiles("test")
+class ManagementPortTests {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void actuatorIsOnlyServedOnTheManagementPort() {
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        for (String path : new String[] {"/actuator/health", "/actuator/prometheus"}) {
+            assertThat(get(serverPort, path).getStatusCode()).isNotEqualTo(HttpStatus.OK);
+            assertThat(get(managementPort, path).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    private ResponseEntity<String> get(int port, String path) {
+        return restTemplate.getForEntity("http://localhost:" + port + path, String.class);
+    }
+}
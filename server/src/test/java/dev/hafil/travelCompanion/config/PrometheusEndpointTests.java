@@ -0,0 +1,69 @@
+package dev.hafil.travelCompanion.config;
+
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.support.StubChatModelConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "stub.chat.latency-ms=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Import(StubChatModelConfiguration.class)
+@ActiveProfiles("test")
+class PrometheusEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void scrapeCoversRequestsRepositoriesModelCallsAndTokenResolution() throws Exception {
+        userRepo.save(new User("metrics-user", "password"));
+        String token = jwtService.generateToken("metrics-user");
+        mockMvc.perform(get("/api/ai").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/trips").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // no token: the scraper must get through without one
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_count{")
+                .contains("uri=\"/api/trips\"")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("repository=\"UserRepository\"")
+                .containsPattern("travelcompanion_ai_calls_seconds_count\\{[^}]*operation=\"hello\"[^}]*outcome=\"success\"")
+                .containsPattern("travelcompanion_jwt_filter_seconds_count\\{[^}]*outcome=\"verified\"[^}]*} 1")
+                .containsPattern("travelcompanion_jwt_filter_seconds_count\\{[^}]*outcome=\"cached\"[^}]*} 1")
+                .contains("travelcompanion_etag_responses_total{")
+                .contains("travelcompanion_ai_cache_requests_total{")
+                .contains("travelcompanion_jwt_principal_cache_requests_total{")
+                .contains("hibernate_query_executions_total");
+    }
+}
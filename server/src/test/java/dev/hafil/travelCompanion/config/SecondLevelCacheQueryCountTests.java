@@ -0,0 +1,168 @@
+package dev.hafil.travelCompanion.config;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.service.AuthService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "travelCompanion.l2-cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long tripId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("l2-user", "password"));
+        Trip trip = new Trip("Cached", "Somewhere", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4));
+        trip.setOwner(owner);
+        tripId = tripRepo.save(trip).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void repeatedUserLookupsDoNotHitTheDatabase() {
+        userDetailsService.loadUserByUsername("l2-user");
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(userDetailsService.loadUserByUsername("l2-user").getUsername()).isEqualTo("l2-user");
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(5);
+    }
+
+    @Test
+    void tripReadsSkipTheTripAndOwnerQueriesOnceCached() throws Exception {
+        String token = jwtService.generateToken("l2-user");
+        statistics.clear();
+        mockMvc.perform(get("/api/trips/" + tripId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        long cold = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/trips/" + tripId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        long warm = statistics.getPrepareStatementCount();
+
+        // ETag stamp, items and places remain; trip and owner come from the cache
+        assertThat(warm).isEqualTo(3);
+        assertThat(warm).isLessThan(cold);
+    }
+
+    @Test
+    void itemTogglesOnlyEvictTheirOwnTrip() throws Exception {
+        User owner = userRepo.findByUsername("l2-user").orElseThrow();
+        Trip other = new Trip("Toggled", "Elsewhere", LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 4));
+        other.setOwner(owner);
+        other.getItems().add(new Item("Sunscreen", other));
+        other = tripRepo.save(other);
+        String token = jwtService.generateToken("l2-user");
+        for (Long id : List.of(tripId, other.getId())) {
+            mockMvc.perform(get("/api/trips/" + id).header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(put("/api/trips/" + other.getId() + "/items/bulk")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + other.getItems().get(0).getId() + "], \"packed\": true}"))
+                .andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/trips/" + tripId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        // the toggled trip is reloaded with its new revision
+        mockMvc.perform(get("/api/trips/" + other.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(1));
+    }
+
+    @Test
+    void adminStatsListTheConfiguredRegions() throws Exception {
+        User admin = new User("l2-admin", "password");
+        admin.setRoles("ROLE_USER,ROLE_ADMIN");
+        userRepo.save(admin);
+        String token = jwtService.generateToken("l2-admin");
+        mockMvc.perform(get("/api/trips/" + tripId).header("Authorization", "Bearer " + jwtService.generateToken("l2-user")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/stats/l2-cache").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.regions.trips.puts").isNumber())
+                .andExpect(jsonPath("$.regions.users").exists())
+                .andExpect(jsonPath("$.regions.users-by-username").exists());
+    }
+
+    @Test
+    void usernameChangesAreVisibleImmediately() {
+        userDetailsService.loadUserByUsername("l2-user");
+
+        authService.changeUsername("l2-user", "l2-renamed");
+
+        assertThat(userDetailsService.loadUserByUsername("l2-renamed").getUsername()).isEqualTo("l2-renamed");
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("l2-user"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package dev.hafil.travelCompanion.controller;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.service.TripETagService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TripETagService tripETagService;
+
+    private String token;
+    private Long tripId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("etag-user", "password"));
+        Trip trip = new Trip("Lisbon week", "Lisbon", LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5));
+        trip.setOwner(owner);
+        trip.getItems().add(new Item("Sunscreen", trip));
+        trip = tripRepo.save(trip);
+        tripId = trip.getId();
+        itemId = trip.getItems().get(0).getId();
+        token = jwtService.generateToken("etag-user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWith304() throws Exception {
+        for (String url : new String[] {"/api/trips/" + tripId, "/api/trips/" + tripId + "/items",
+                "/api/trips/" + tripId + "/places"}) {
+            String etag = etagOf(url);
+
+            mockMvc.perform(authorized(get(url)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+            mockMvc.perform(authorized(get(url)).header(HttpHeaders.IF_NONE_MATCH, "\"0.99\""))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void mutationsChangeTheETag() throws Exception {
+        String url = "/api/trips/" + tripId + "/items";
+        String initial = etagOf(url);
+
+        mockMvc.perform(authorized(put("/api/trips/" + tripId + "/items/bulk"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + itemId + "], \"packed\": true}"))
+                .andExpect(status().isOk());
+        String afterToggle = etagOf(url);
+
+        mockMvc.perform(authorized(put("/api/trips/" + tripId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Lisbon\", \"destination\": \"Lisbon\", \"version\": 0}"))
+                .andExpect(status().isOk());
+        String afterRename = etagOf(url);
+
+        assertThat(afterToggle).isNotEqualTo(initial);
+        assertThat(afterRename).isNotEqualTo(afterToggle);
+        mockMvc.perform(authorized(get(url)).header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void notModifiedRatioCountsConditionalReads() throws Exception {
+        String url = "/api/trips/" + tripId;
+        long notModified = tripETagService.notModifiedCount();
+        long served = tripETagService.servedCount();
+
+        String etag = etagOf(url);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(authorized(get(url)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+        }
+        // a foreign trip is not counted either way
+        userRepo.save(new User("someone-else", "password"));
+        mockMvc.perform(get(url).header("Authorization", "Bearer " + jwtService.generateToken("someone-else")))
+                .andExpect(status().isForbidden());
+
+        assertThat(tripETagService.notModifiedCount() - notModified).isEqualTo(3);
+        assertThat(tripETagService.servedCount() - served).isEqualTo(1);
+        assertThat(tripETagService.notModifiedRatio())
+                .isEqualTo((double) tripETagService.notModifiedCount()
+                        / (tripETagService.notModifiedCount() + tripETagService.servedCount()));
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(authorized(get(url)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"\\d+\\.\\d+\"");
+        return etag;
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+}
@@ -0,0 +1,135 @@
+package dev.hafil.travelCompanion.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.hafil.travelCompanion.dto.PageCursor;
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CursorPaginationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Long> tripIdsInOrder = new ArrayList<>();
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("cursor-user", "password"));
+        // three trips share each start date, so the id has to break the ties
+        for (int i = 0; i < 7; i++) {
+            LocalDate from = LocalDate.of(2026, 5, 1).plusDays(i % 3);
+            Trip trip = new Trip("Trip " + i, "Somewhere", from, from.plusDays(2));
+            trip.setOwner(owner);
+            if (i == 0) {
+                for (int j = 0; j < 5; j++) {
+                    trip.getItems().add(new Item("Item " + j, trip));
+                }
+            }
+            tripRepo.save(trip);
+        }
+        tripRepo.findByOwnerUsername("cursor-user").stream()
+                .sorted((a, b) -> a.getFromDate().equals(b.getFromDate())
+                        ? a.getId().compareTo(b.getId())
+                        : a.getFromDate().compareTo(b.getFromDate()))
+                .forEach(t -> tripIdsInOrder.add(t.getId()));
+        token = jwtService.generateToken("cursor-user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void followingCursorsVisitsEveryTripOnceInDateThenIdOrder() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = getJson("/api/trips/page?limit=2" + (cursor == null ? "" : "&cursor=" + cursor));
+            page.get("content").forEach(trip -> seen.add(trip.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(tripIdsInOrder);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void itemPagesContinueAfterTheLastId() throws Exception {
+        Long tripId = tripRepo.findByOwnerUsername("cursor-user").stream()
+                .filter(t -> t.getName().equals("Trip 0")).findFirst().orElseThrow().getId();
+
+        JsonNode first = getJson("/api/trips/" + tripId + "/items/page?limit=3");
+        JsonNode second = getJson("/api/trips/" + tripId + "/items/page?limit=3&cursor="
+                + first.get("nextCursor").asText());
+
+        assertThat(first.get("content")).hasSize(3);
+        assertThat(second.get("content")).hasSize(2);
+        assertThat(second.get("content").get(0).get("id").asLong())
+                .isGreaterThan(first.get("content").get(2).get("id").asLong());
+        assertThat(second.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void malformedOrMismatchedCursorsAreRejected() throws Exception {
+        String dateless = new PageCursor(null, tripIdsInOrder.get(0)).encode();
+        String dated = new PageCursor(LocalDate.of(2026, 5, 1), 1).encode();
+        Long tripId = tripIdsInOrder.get(0);
+
+        mockMvc.perform(get("/api/trips/page?cursor=not-a-cursor").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        // a trip cursor without a date used to restart silently at page one
+        mockMvc.perform(get("/api/trips/page?cursor=" + dateless).header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/trips/" + tripId + "/items/page?cursor=" + dated)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
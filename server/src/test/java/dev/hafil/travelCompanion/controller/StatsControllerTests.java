@@ -0,0 +1,58 @@
+package dev.hafil.travelCompanion.controller;
+
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void statsAreForAdminsOnly() throws Exception {
+        String user = tokenFor("stats-user", "ROLE_USER");
+        String admin = tokenFor("stats-admin", "ROLE_USER,ROLE_ADMIN");
+
+        for (String url : new String[] {"/api/stats/conditional-get", "/api/stats/l2-cache"}) {
+            mockMvc.perform(get(url)).andExpect(status().isUnauthorized());
+            mockMvc.perform(get(url).header("Authorization", "Bearer " + user)).andExpect(status().isForbidden());
+            mockMvc.perform(get(url).header("Authorization", "Bearer " + admin)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/stats/l2-cache").header("Authorization", "Bearer " + admin))
+                .andExpect(jsonPath("$.enabled").value(false))
+                .andExpect(jsonPath("$.regions").isEmpty());
+    }
+
+    private String tokenFor(String username, String roles) {
+        User user = new User(username, "password");
+        user.setRoles(roles);
+        userRepo.save(user);
+        return jwtService.generateToken(username);
+    }
+}
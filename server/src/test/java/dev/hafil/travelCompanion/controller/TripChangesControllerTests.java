@@ -0,0 +1,213 @@
+package dev.hafil.travelCompanion.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TripChangesControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private Long tripId;
+    private Long itemId;
+    private Long otherItemId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("changes-user", "password"));
+        Trip trip = new Trip("Lisbon week", "Lisbon", LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5));
+        trip.setOwner(owner);
+        trip.getItems().add(new Item("Sunscreen", trip));
+        trip.getItems().add(new Item("Rain jacket", trip));
+        trip = tripRepo.save(trip);
+        tripId = trip.getId();
+        itemId = trip.getItems().get(0).getId();
+        otherItemId = trip.getItems().get(1).getId();
+        token = jwtService.generateToken("changes-user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tombstoneRepo.deleteAll();
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void feedReportsUpdatedRowsTheirTripAndTombstones() throws Exception {
+        JsonNode initial = getJson("/api/trips/changes");
+        assertThat(initial.get("full").asBoolean()).isTrue();
+        assertThat(initial.get("items")).hasSize(2);
+
+        JsonNode quiet = pollAfter(initial);
+        assertThat(quiet.get("full").asBoolean()).isFalse();
+        assertThat(quiet.get("trips")).isEmpty();
+        assertThat(quiet.get("items")).isEmpty();
+
+        mockMvc.perform(authorized(put("/api/trips/" + tripId + "/items/" + itemId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Sunscreen SPF 50\", \"packed\": true}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(authorized(delete("/api/trips/" + tripId + "/items/" + otherItemId)))
+                .andExpect(status().isOk());
+
+        JsonNode changes = pollAfter(quiet);
+        assertThat(changes.get("items")).hasSize(1);
+        assertThat(changes.get("items").get(0).get("name").asText()).isEqualTo("Sunscreen SPF 50");
+        // the revision bump moved the trip's stamp too
+        assertThat(changes.get("trips")).hasSize(1);
+        assertThat(changes.get("trips").get(0).get("revision").asLong()).isEqualTo(2);
+        assertThat(changes.get("deleted")).hasSize(1);
+        assertThat(changes.get("deleted").get(0).get("kind").asText()).isEqualTo("ITEM");
+        assertThat(changes.get("deleted").get(0).get("id").asLong()).isEqualTo(otherItemId);
+
+        JsonNode after = pollAfter(changes);
+        assertThat(after.get("items")).isEmpty();
+        assertThat(after.get("deleted")).isEmpty();
+    }
+
+    @Test
+    void rowsAreSelectedByRevisionNotByTheirClock() throws Exception {
+        JsonNode initial = getJson("/api/trips/changes");
+
+        mockMvc.perform(authorized(put("/api/trips/" + tripId + "/items/" + itemId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Sunscreen\", \"packed\": true}"))
+                .andExpect(status().isOk());
+        // a row stamped by a lagging clock, or never stamped at all
+        jdbcTemplate.update("update items set updated_at = null where id = ?", itemId);
+        updateTrip("{\"name\": \"Lisbon long weekend\", \"destination\": \"Lisbon\", \"version\": 0}")
+                .andExpect(status().isOk());
+
+        JsonNode changes = pollAfter(initial);
+        assertThat(changes.get("items")).hasSize(1);
+        assertThat(changes.get("items").get(0).get("id").asLong()).isEqualTo(itemId);
+        assertThat(changes.get("trips")).hasSize(1);
+        assertThat(changes.get("trips").get(0).get("name").asText()).isEqualTo("Lisbon long weekend");
+
+        JsonNode after = pollAfter(changes);
+        assertThat(after.get("trips")).isEmpty();
+        assertThat(after.get("items")).isEmpty();
+    }
+
+    @Test
+    void deletedTripLeavesOneTombstone() throws Exception {
+        JsonNode initial = getJson("/api/trips/changes");
+
+        mockMvc.perform(authorized(delete("/api/trips/" + tripId))).andExpect(status().isOk());
+
+        JsonNode changes = pollAfter(initial);
+        assertThat(changes.get("deleted")).hasSize(1);
+        assertThat(changes.get("deleted").get(0).get("kind").asText()).isEqualTo("TRIP");
+        assertThat(changes.get("deleted").get(0).get("tripId").asLong()).isEqualTo(tripId);
+    }
+
+    @Test
+    void invalidTokenIsRejected() throws Exception {
+        mockMvc.perform(authorized(get("/api/trips/changes?since=%%%")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void itemUpdateReturnsThePersistedVersion() throws Exception {
+        for (int expected = 1; expected <= 2; expected++) {
+            mockMvc.perform(authorized(put("/api/trips/" + tripId + "/items/" + itemId))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\": \"Sunscreen\", \"packed\": true, \"version\": 0}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(itemId))
+                    .andExpect(jsonPath("$.version").value(expected))
+                    .andExpect(jsonPath("$.revision").value(expected))
+                    .andExpect(jsonPath("$.packed").value(true))
+                    .andExpect(jsonPath("$.updatedAt").isNotEmpty());
+        }
+    }
+
+    @Test
+    void staleTripVersionIsAConflictAndAMissingOneIsRequired() throws Exception {
+        updateTrip("{\"name\": \"Lisbon\", \"destination\": \"Lisbon\", \"version\": 0}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        updateTrip("{\"name\": \"Stale\", \"destination\": \"Lisbon\", \"version\": 0}")
+                .andExpect(status().isConflict());
+        updateTrip("{\"name\": \"Unconditional\", \"destination\": \"Lisbon\"}")
+                .andExpect(status().isPreconditionRequired());
+        updateTrip("{\"name\": \"Lisbon again\", \"destination\": \"Lisbon\", \"version\": 1}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Lisbon again"))
+                .andExpect(jsonPath("$.version").value(2));
+
+        assertThat(tripRepo.findById(tripId).orElseThrow().getName()).isEqualTo("Lisbon again");
+    }
+
+    private ResultActions updateTrip(String body) throws Exception {
+        return mockMvc.perform(authorized(put("/api/trips/" + tripId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private JsonNode pollAfter(JsonNode previous) throws Exception {
+        return getJson("/api/trips/changes?since=" + previous.get("token").asText());
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = mockMvc.perform(authorized(get(url)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+}
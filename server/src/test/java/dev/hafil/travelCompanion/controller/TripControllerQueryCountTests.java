@@ -0,0 +1,109 @@
+package dev.hafil.travelCompanion.controller;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.PlaceToVisit;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TripControllerQueryCountTests {
+
+    private static final int TRIPS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("query-count-user", "password"));
+        for (int i = 0; i < TRIPS; i++) {
+            Trip trip = new Trip("Trip " + i, "Destination " + i,
+                    LocalDate.of(2026, 1, 1).plusDays(i), LocalDate.of(2026, 1, 5).plusDays(i));
+            trip.setOwner(owner);
+            for (int j = 0; j < 3; j++) {
+                trip.getItems().add(new Item("Item " + j, trip));
+                trip.getPlacesToVisit().add(new PlaceToVisit("Place " + j, trip));
+            }
+            tripRepo.save(trip);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void listingTripsDoesNotIssueQueriesPerTrip() throws Exception {
+        String token = jwtService.generateToken("query-count-user");
+        statistics.clear();
+
+        mockMvc.perform(get("/api/trips").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TRIPS))
+                .andExpect(jsonPath("$[0].items.length()").value(3))
+                .andExpect(jsonPath("$[0].placesToVisit.length()").value(3));
+
+        // user lookup in the JWT filter, trips joined with items, one batch of places
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void tripSummariesAreComputedInOneQuery() throws Exception {
+        String token = jwtService.generateToken("query-count-user");
+        mockMvc.perform(get("/api/trips/summary").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/trips/summary").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TRIPS))
+                .andExpect(jsonPath("$[0].itemCount").value(3))
+                .andExpect(jsonPath("$[0].packedCount").value(0))
+                .andExpect(jsonPath("$[0].placeCount").value(3))
+                .andExpect(jsonPath("$[0].items").doesNotExist());
+
+        // the principal is cached by now, so only the projection runs
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
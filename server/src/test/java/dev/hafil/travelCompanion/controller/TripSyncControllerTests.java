@@ -0,0 +1,245 @@
+package dev.hafil.travelCompanion.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.PlaceToVisit;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.ItemRepository;
+import dev.hafil.travelCompanion.repo.PlaceToVisitRepository;
+import dev.hafil.travelCompanion.repo.TombstoneRepository;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TripSyncControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemRepository itemRepo;
+
+    @Autowired
+    private PlaceToVisitRepository placeRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private Long tripId;
+    private final List<Long> itemIds = new ArrayList<>();
+    private Long placeId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("sync-user", "password"));
+        Trip trip = new Trip("Lisbon week", "Lisbon", LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5));
+        trip.setOwner(owner);
+        for (String name : List.of("Sunscreen", "Rain jacket", "Passport")) {
+            trip.getItems().add(new Item(name, trip));
+        }
+        trip.getPlacesToVisit().add(new PlaceToVisit("Old Town", trip));
+        trip = tripRepo.save(trip);
+        tripId = trip.getId();
+        trip.getItems().forEach(i -> itemIds.add(i.getId()));
+        placeId = trip.getPlacesToVisit().get(0).getId();
+        token = jwtService.generateToken("sync-user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tombstoneRepo.deleteAll();
+        tripRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void batchReturnsOnlyTheRowsItChangedAtANewRevision() throws Exception {
+        JsonNode delta = batch("{\"items\": [{\"id\": " + itemIds.get(0) + ", \"value\": true},"
+                + " {\"id\": " + itemIds.get(1) + ", \"value\": true},"
+                + " {\"id\": " + itemIds.get(1) + ", \"value\": false}],"
+                + " \"places\": [{\"id\": " + placeId + ", \"value\": true}]}");
+
+        assertThat(delta.get("revision").asLong()).isEqualTo(1);
+        assertThat(delta.get("items")).hasSize(2);
+        assertThat(delta.get("items").get(0).get("packed").asBoolean()).isTrue();
+        // the last change for an id wins
+        assertThat(delta.get("items").get(1).get("packed").asBoolean()).isFalse();
+        assertThat(delta.get("places").get(0).get("visited").asBoolean()).isTrue();
+        delta.get("items").forEach(item -> assertThat(item.get("revision").asLong()).isEqualTo(1));
+    }
+
+    @Test
+    void everyMutationMovesTheRevisionForward() throws Exception {
+        List<Long> revisions = new ArrayList<>();
+        revisions.add(delta(null).get("revision").asLong());
+
+        batch("{\"items\": [{\"id\": " + itemIds.get(0) + ", \"value\": true}]}");
+        revisions.add(delta(null).get("revision").asLong());
+        perform(put("/api/trips/" + tripId + "/items/" + itemIds.get(1))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Umbrella\", \"packed\": false}"));
+        revisions.add(delta(null).get("revision").asLong());
+        perform(put("/api/trips/" + tripId + "/places/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + placeId + "], \"visited\": true}"));
+        revisions.add(delta(null).get("revision").asLong());
+        perform(delete("/api/trips/" + tripId + "/items/" + itemIds.get(2)));
+        revisions.add(delta(null).get("revision").asLong());
+
+        assertThat(revisions).containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void deltaSinceARevisionHasOnlyNewerRowsAndDeletes() throws Exception {
+        batch("{\"items\": [{\"id\": " + itemIds.get(0) + ", \"value\": true}]}");
+        long seen = delta(null).get("revision").asLong();
+
+        perform(put("/api/trips/" + tripId + "/items/" + itemIds.get(1))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Umbrella\", \"packed\": true}"));
+        perform(delete("/api/trips/" + tripId + "/items/" + itemIds.get(2)));
+
+        JsonNode delta = delta(seen);
+        assertThat(delta.get("revision").asLong()).isEqualTo(seen + 2);
+        assertThat(delta.get("items")).hasSize(1);
+        assertThat(delta.get("items").get(0).get("name").asText()).isEqualTo("Umbrella");
+        assertThat(delta.get("places")).isEmpty();
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.get("deleted").get(0).get("kind").asText()).isEqualTo("ITEM");
+        assertThat(delta.get("deleted").get(0).get("id").asLong()).isEqualTo(itemIds.get(2));
+
+        JsonNode fromStart = delta(0L);
+        assertThat(fromStart.get("deleted")).hasSize(1);
+
+        JsonNode upToDate = delta(delta.get("revision").asLong());
+        assertThat(upToDate.get("items")).isEmpty();
+        assertThat(upToDate.get("deleted")).isEmpty();
+    }
+
+    @Test
+    void bulkDeletesOfPlacesAreReportedToo() throws Exception {
+        perform(post("/api/trips/" + tripId + "/places/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + placeId + "]}"));
+
+        JsonNode delta = delta(0L);
+        assertThat(delta.get("places")).isEmpty();
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.get("deleted").get(0).get("kind").asText()).isEqualTo("PLACE");
+    }
+
+    @Test
+    void toggleRunsTheBumpAndTheUpdateOnly() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // warm the principal cache so only the toggle is counted
+        perform(get("/api/trips/summary"));
+        statistics.clear();
+
+        perform(put("/api/trips/" + tripId + "/items/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + itemIds.get(0) + "], \"packed\": true}"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(delta(0L).get("items").get(0).get("revision").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void rowMutationsCheckTheOwnerThemselves() throws Exception {
+        userRepo.save(new User("intruder", "password"));
+        Instant now = Instant.now();
+
+        int changed = transactionTemplate.execute(status ->
+                itemRepo.updatePacked(tripId, "intruder", itemIds, true, now)
+                        + itemRepo.updateInTrip(itemIds.get(0), tripId, "intruder", "Stolen", true, now)
+                        + itemRepo.deleteInTrip(tripId, "intruder", itemIds)
+                        + placeRepo.updateInTrip(placeId, tripId, "intruder", "Stolen", true, now)
+                        + placeRepo.deleteInTrip(tripId, "intruder", List.of(placeId)));
+
+        assertThat(changed).isZero();
+        assertThat(itemRepo.findByIdAndTripIdAndTripOwnerUsername(itemIds.get(0), tripId, "intruder")).isEmpty();
+        assertThat(itemRepo.findByIdAndTripIdAndTripOwnerUsername(itemIds.get(0), tripId, "sync-user")
+                .orElseThrow().getName()).isEqualTo("Sunscreen");
+    }
+
+    @Test
+    void itemUpdateRunsTheBumpTheUpdateAndOneOwnerScopedRead() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        perform(get("/api/trips/summary"));
+        statistics.clear();
+
+        perform(put("/api/trips/" + tripId + "/items/" + itemIds.get(0))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Umbrella\", \"packed\": true}"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private JsonNode batch(String body) throws Exception {
+        return json(perform(post("/api/trips/" + tripId + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body)));
+    }
+
+    private JsonNode delta(Long since) throws Exception {
+        return json(perform(get("/api/trips/" + tripId + "/delta" + (since == null ? "" : "?since=" + since))));
+    }
+
+    private String perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,252 @@
+package dev.hafil.travelCompanion.load;
+
+import dev.hafil.travelCompanion.TravelCompanionApplication;
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.BulkInsertRepository;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.support.StubChatModelConfiguration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application on H2 with the stub model and drives a weighted mix
+ * of logins, trip listings, packed-flag toggles and suggestion calls from
+ * concurrent clients, then reports p50/p99 latency and throughput per
+ * endpoint. Run with {@code mvn test -Pload}; the report is printed and
+ * written to {@code target/load-reports/api-mix.txt}.
+ *
+ * <p>The shape of the run can be changed with system properties:
+ * {@code load.users}, {@code load.clients}, {@code load.requests}
+ * (per client) and {@code load.model-latency-ms}.
+ */
+@Tag("load")
+class ApiMixLoadTests {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requests", 100);
+    private static final long MODEL_LATENCY_MS = Long.getLong("load.model-latency-ms", 150);
+    private static final int ITEMS_PER_TRIP = 40;
+    private static final String PASSWORD = "load-password";
+
+    enum Endpoint {
+        LOGIN("POST /api/auth/login", 5),
+        LIST_TRIPS("GET /api/trips", 45),
+        TOGGLE_ITEM("POST /api/trips/{id}/batch", 40),
+        SUGGEST("GET /api/trips/{id}/suggest", 10);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    record Seeded(String username, String token, long tripId, List<Long> itemIds) {
+    }
+
+    record Sample(Endpoint endpoint, long nanos, boolean ok) {
+    }
+
+    record Stats(Endpoint endpoint, int requests, int failures, double rps, long p50Ms, long p99Ms) {
+        @Override
+        public String toString() {
+            return "%-30s requests=%5d failures=%d rps=%8.1f p50=%4dms p99=%4dms"
+                    .formatted(endpoint.label, requests, failures, rps, p50Ms, p99Ms);
+        }
+    }
+
+    @Test
+    void mixedTrafficReportsLatencyPerEndpoint() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                TravelCompanionApplication.class, StubChatModelConfiguration.class)
+                .profiles("test")
+                // command-line arguments, so they win over application.yaml; the suggestion
+                // cache is off so every call reaches the model, and every client shares one IP
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=true",
+                        "--travelCompanion.ai.cache.max-size=0",
+                        "--travelCompanion.auth.rate-limit.enabled=false",
+                        "--travelCompanion.ai.resilience.rate-limit.enabled=false",
+                        "--stub.chat.latency-ms=" + MODEL_LATENCY_MS)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<Seeded> seeded = seed(context);
+
+            List<Sample> samples = new ArrayList<>();
+            long elapsedNanos = drive("http://localhost:" + port, seeded, samples);
+            List<Stats> stats = summarize(samples, elapsedNanos);
+
+            int total = samples.size();
+            String report = """
+                    Mixed API traffic on H2 with the stub model
+                    (%d users, %d clients x %d requests, model latency %dms, elapsed %dms, overall rps %.1f)
+                    %s
+                    """.formatted(USERS, CLIENTS, REQUESTS_PER_CLIENT, MODEL_LATENCY_MS,
+                    elapsedNanos / 1_000_000, total / (elapsedNanos / 1e9),
+                    stats.stream().map(Stats::toString).collect(Collectors.joining("\n")));
+            System.out.println(report);
+            Path out = Path.of("target", "load-reports", "api-mix.txt");
+            Files.createDirectories(out.getParent());
+            Files.writeString(out, report);
+
+            assertThat(total).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+            assertThat(stats).allSatisfy(s -> assertThat(s.failures()).isZero());
+        }
+    }
+
+    private List<Seeded> seed(ConfigurableApplicationContext context) {
+        UserRepository userRepo = context.getBean(UserRepository.class);
+        TripRepository tripRepo = context.getBean(TripRepository.class);
+        BulkInsertRepository bulkInsertRepo = context.getBean(BulkInsertRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+        // every user shares one hash so seeding doesn't pay for USERS rounds of BCrypt
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Seeded> seeded = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            User user = userRepo.save(new User("load-user-" + u, hash));
+            Trip trip = new Trip("Trip " + u, "Lisbon", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 7));
+            trip.setOwner(user);
+            Trip saved = tripRepo.save(trip);
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_TRIP; i++) {
+                items.add(new Item("Item " + i, saved));
+            }
+            List<Long> itemIds = bulkInsertRepo.insertItems(saved, items).stream().map(Item::getId).toList();
+            seeded.add(new Seeded(user.getUsername(), jwtService.generateToken(user.getUsername()),
+                    saved.getId(), itemIds));
+        }
+        return seeded;
+    }
+
+    private long drive(String baseUrl, List<Seeded> seeded, List<Sample> samples) throws Exception {
+        ConcurrentLinkedQueue<Sample> collected = new ConcurrentLinkedQueue<>();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(clientThreads).build();
+            // one request of each kind first, so class loading and JIT don't land in the numbers
+            Random warmup = new Random(0);
+            for (Endpoint endpoint : Endpoint.values()) {
+                client.send(request(baseUrl, endpoint, seeded.get(0), warmup), HttpResponse.BodyHandlers.discarding());
+            }
+
+            AtomicInteger clientIds = new AtomicInteger();
+            List<Future<?>> clients = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(clientThreads.submit(() -> {
+                    Random random = new Random(clientIds.incrementAndGet());
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        Endpoint endpoint = pick(random);
+                        Seeded user = seeded.get(random.nextInt(seeded.size()));
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> res = client.send(request(baseUrl, endpoint, user, random),
+                                    HttpResponse.BodyHandlers.discarding());
+                            ok = res.statusCode() == 200;
+                        } catch (Exception ex) {
+                            ok = false;
+                        }
+                        collected.add(new Sample(endpoint, System.nanoTime() - sent, ok));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : clients) {
+                f.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            samples.addAll(collected);
+            return elapsed;
+        }
+    }
+
+    private static Endpoint pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.LIST_TRIPS;
+    }
+
+    private static HttpRequest request(String baseUrl, Endpoint endpoint, Seeded user, Random random) {
+        return switch (endpoint) {
+            case LOGIN -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"%s\",\"password\":\"%s\"}".formatted(user.username(), PASSWORD)))
+                    .build();
+            case LIST_TRIPS -> authorized(baseUrl + "/api/trips", user).GET().build();
+            case TOGGLE_ITEM -> authorized(baseUrl + "/api/trips/" + user.tripId() + "/batch", user)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"items\":[{\"id\":%d,\"value\":%b}]}".formatted(
+                            user.itemIds().get(random.nextInt(user.itemIds().size())), random.nextBoolean())))
+                    .build();
+            case SUGGEST -> authorized(baseUrl + "/api/trips/" + user.tripId() + "/suggest", user).GET().build();
+        };
+    }
+
+    private static HttpRequest.Builder authorized(String url, Seeded user) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + user.token());
+    }
+
+    private static List<Stats> summarize(List<Sample> samples, long elapsedNanos) {
+        Map<Endpoint, List<Sample>> byEndpoint = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            byEndpoint.put(endpoint, new ArrayList<>());
+        }
+        samples.forEach(s -> byEndpoint.get(s.endpoint()).add(s));
+
+        List<Stats> stats = new ArrayList<>();
+        byEndpoint.forEach((endpoint, list) -> {
+            List<Long> ok = new ArrayList<>(list.stream().filter(Sample::ok).map(s -> s.nanos() / 1_000_000).toList());
+            Collections.sort(ok);
+            int failures = list.size() - ok.size();
+            stats.add(new Stats(endpoint, list.size(), failures, list.size() / (elapsedNanos / 1e9),
+                    percentile(ok, 0.50), percentile(ok, 0.99)));
+        });
+        return stats;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
@@ -0,0 +1,100 @@
+package dev.hafil.travelCompanion.load;
+
+import dev.hafil.travelCompanion.model.Item;
+import dev.hafil.travelCompanion.model.Trip;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.BulkInsertRepository;
+import dev.hafil.travelCompanion.repo.ItemRepository;
+import dev.hafil.travelCompanion.repo.TripRepository;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/sec of the JPA {@code saveAll} path against the JDBC batch path for
+ * bulk item imports, plus the single-statement packed-flag update. Runs on
+ * the embedded test database, so absolute numbers are only comparable with
+ * each other; against MySQL the gap widens with network latency.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("load")
+class BulkInsertThroughputLoadTests {
+
+    private static final int ROWS = 3000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TripRepository tripRepo;
+
+    @Autowired
+    private ItemRepository itemRepo;
+
+    @Autowired
+    private BulkInsertRepository bulkInsertRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void batchedInsertsBeatSaveAll() throws Exception {
+        User owner = userRepo.save(new User("bulk-user", "password"));
+        Trip trip = new Trip("Bulk", "Anywhere", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 3));
+        trip.setOwner(owner);
+        Trip saved = tripRepo.save(trip);
+
+        double saveAll = rowsPerSecond(items -> itemRepo.saveAll(items), saved);
+        double batched = rowsPerSecond(items -> bulkInsertRepo.insertItems(saved, items), saved);
+
+        List<Long> ids = itemRepo.findByTripId(saved.getId()).stream().map(Item::getId).toList();
+        long start = System.nanoTime();
+        int updated = transactionTemplate.execute(status -> itemRepo.updatePacked(saved.getId(), "bulk-user", ids, true, Instant.now()));
+        double bulkUpdate = updated / ((System.nanoTime() - start) / 1e9);
+
+        String report = """
+                Bulk item ingestion, %d rows x %d rounds
+                saveAll (IDENTITY, one INSERT per row): %.0f rows/sec
+                JDBC batch insert:                      %.0f rows/sec
+                bulk packed-flag UPDATE (%d rows):     %.0f rows/sec
+                """.formatted(ROWS, ROUNDS, saveAll, batched, updated, bulkUpdate);
+        System.out.println(report);
+        Path out = Path.of("target", "load-reports", "bulk-insert.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report);
+
+        assertThat(updated).isEqualTo(ids.size());
+        assertThat(batched).isGreaterThan(saveAll);
+    }
+
+    private double rowsPerSecond(Consumer<List<Item>> insert, Trip trip) {
+        long totalNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Item> items = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                items.add(new Item("Item " + round + "-" + i, trip));
+            }
+            long start = System.nanoTime();
+            insert.accept(items);
+            totalNanos += System.nanoTime() - start;
+            assertThat(items).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+        }
+        return (double) ROWS * ROUNDS / (totalNanos / 1e9);
+    }
+}
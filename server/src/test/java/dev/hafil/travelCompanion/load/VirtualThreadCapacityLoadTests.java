@@ -0,0 +1,127 @@
+package dev.hafil.travelCompanion.load;
+
+import dev.hafil.travelCompanion.TravelCompanionApplication;
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.security.JwtService;
+import dev.hafil.travelCompanion.support.StubChatModelConfiguration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application twice, once on the platform-thread Tomcat pool and
+ * once on virtual threads, and fires the same burst of concurrent requests
+ * at an endpoint that blocks on the (stubbed) model. Run with
+ * {@code mvn test -Pload}; the comparison is printed and written to
+ * {@code target/load-reports/virtual-threads.txt}.
+ */
+@Tag("load")
+class VirtualThreadCapacityLoadTests {
+
+    private static final int CONCURRENT_REQUESTS = 400;
+    private static final int TOMCAT_MAX_THREADS = 20;
+    private static final long MODEL_LATENCY_MS = 250;
+
+    record Result(String mode, int requests, int failures, long elapsedMs, long p50Ms, long p99Ms) {
+        double requestsPerSecond() {
+            return requests * 1000.0 / elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return "%-9s requests=%d failures=%d elapsed=%dms rps=%.1f p50=%dms p99=%dms"
+                    .formatted(mode, requests, failures, elapsedMs, requestsPerSecond(), p50Ms, p99Ms);
+        }
+    }
+
+    @Test
+    void virtualThreadsServeMoreConcurrentBlockingRequests() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        String report = """
+                Concurrent blocking requests against GET /api/ai
+                (%d requests at once, model latency %dms, server.tomcat.threads.max=%d)
+                %s
+                %s
+                """.formatted(CONCURRENT_REQUESTS, MODEL_LATENCY_MS, TOMCAT_MAX_THREADS, platform, virtual);
+        System.out.println(report);
+        Path out = Path.of("target", "load-reports", "virtual-threads.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report);
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+        assertThat(virtual.requestsPerSecond()).isGreaterThan(platform.requestsPerSecond());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                TravelCompanionApplication.class, StubChatModelConfiguration.class)
+                .profiles("test")
+                // command-line arguments, so they win over application.yaml; the AI
+                // guard is opened up so the servlet threads are the only limit measured
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--travelCompanion.ai.resilience.max-concurrent=" + CONCURRENT_REQUESTS,
+                        "--travelCompanion.ai.resilience.rate-limit.enabled=false",
+                        "--stub.chat.latency-ms=" + MODEL_LATENCY_MS)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            context.getBean(UserRepository.class).save(new User("load-user", "password"));
+            String token = context.getBean(JwtService.class).generateToken("load-user");
+            return fire(virtualThreads ? "virtual" : "platform", port, token);
+        }
+    }
+
+    private Result fire(String mode, int port, String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ai"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(clientThreads).build();
+            // warm up the principal cache and the connection path
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).join();
+
+            List<CompletableFuture<Long>> calls = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                long sent = System.nanoTime();
+                calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenApply(res -> res.statusCode() == 200 ? (System.nanoTime() - sent) / 1_000_000 : -1L));
+            }
+            List<Long> latencies = calls.stream().map(CompletableFuture::join).sorted().toList();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            int failures = (int) latencies.stream().filter(l -> l < 0).count();
+            List<Long> ok = latencies.stream().filter(l -> l >= 0).toList();
+            return new Result(mode, CONCURRENT_REQUESTS, failures, elapsedMs,
+                    percentile(ok, 0.50), percentile(ok, 0.99));
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
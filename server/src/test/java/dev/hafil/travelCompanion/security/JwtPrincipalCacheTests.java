@@ -0,0 +1,87 @@
+package dev.hafil.travelCompanion.security;
+
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import dev.hafil.travelCompanion.service.AuthService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtPrincipalCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void repeatRequestsWithOneTokenSkipTheUserLookup() throws Exception {
+        userRepo.save(new User("cached-principal", "password"));
+        String token = jwtService.generateToken("cached-principal");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        summaries(token);
+        long first = statistics.getPrepareStatementCount();
+        long hits = principalCache.hitCount();
+
+        statistics.clear();
+        summaries(token);
+        summaries(token);
+
+        // the first request also loaded the user; later ones only run the summary query
+        assertThat(first).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(principalCache.hitCount()).isEqualTo(hits + 2);
+    }
+
+    @Test
+    void renamingAUserDropsTheirCachedPrincipal() throws Exception {
+        userRepo.save(new User("renamed-principal", "password"));
+        String token = jwtService.generateToken("renamed-principal");
+        summaries(token);
+
+        authService.changeUsername("renamed-principal", "renamed-principal-2");
+
+        // the old token names a user that no longer exists, so it must be looked up again and refused
+        mockMvc.perform(get("/api/trips/summary").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void summaries(String token) throws Exception {
+        mockMvc.perform(get("/api/trips/summary").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+}
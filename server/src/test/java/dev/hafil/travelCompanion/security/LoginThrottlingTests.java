@@ -0,0 +1,93 @@
+package dev.hafil.travelCompanion.security;
+
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "travelCompanion.auth.rate-limit.per-username.capacity=3",
+        "travelCompanion.auth.rate-limit.per-username.refill-per-minute=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginThrottlingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void repeatedLoginsForOneUsernameAreThrottledWithRetryAfter() throws Exception {
+        userRepo.save(new User("throttled-user", new BCryptPasswordEncoder(4).encode("password")));
+        userRepo.save(new User("someone-else", new BCryptPasswordEncoder(4).encode("password")));
+
+        for (int i = 0; i < 3; i++) {
+            login("throttled-user", "password").andExpect(status().isOk());
+        }
+
+        login("throttled-user", "password")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+        // the bucket is per username, so other accounts from the same client are unaffected
+        login("someone-else", "password").andExpect(status().isOk());
+    }
+
+    @Test
+    void badPasswordsFromOneClientDoNotLockTheOwnerOut() throws Exception {
+        userRepo.save(new User("victim", new BCryptPasswordEncoder(4).encode("password")));
+
+        for (int i = 0; i < 3; i++) {
+            login("victim", "wrong", "10.0.0.66").andExpect(status().isUnauthorized());
+        }
+        login("victim", "password", "10.0.0.66").andExpect(status().isTooManyRequests());
+
+        login("victim", "password", "10.0.0.7").andExpect(status().isOk());
+    }
+
+    @Test
+    void successfulLoginUpgradesAWeakerHash() throws Exception {
+        userRepo.save(new User("legacy-user", new BCryptPasswordEncoder(4).encode("password")));
+
+        login("legacy-user", "password").andExpect(status().isOk());
+
+        String upgraded = userRepo.findByUsername("legacy-user").orElseThrow().getPassword();
+        assertThat(upgraded).startsWith("$2a$10$");
+        login("legacy-user", "password").andExpect(status().isOk());
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return login(username, password, "127.0.0.1");
+    }
+
+    private ResultActions login(String username, String password, String clientIp) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(clientIp);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"%s\",\"password\":\"%s\"}".formatted(username, password)));
+    }
+}
@@ -0,0 +1,116 @@
+package dev.hafil.travelCompanion.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "travelCompanion.jwt.stateless=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatelessJwtTests {
+
+    private static final String USERNAME = "stateless-user";
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(PASSWORD)))
+                .andExpect(status().isOk());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void loginTokenAuthenticatesWithoutLoadingTheUser() throws Exception {
+        String token = login(PASSWORD);
+        double stateless = filterCount("stateless");
+        double verified = filterCount("verified");
+
+        mockMvc.perform(get("/api/trips").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertThat(filterCount("stateless")).isEqualTo(stateless + 1);
+        assertThat(filterCount("verified")).isEqualTo(verified);
+        assertThat(jwtService.parseClaims(token).orElseThrow().get(JwtService.ROLES_CLAIM))
+                .isEqualTo(List.of("ROLE_USER"));
+    }
+
+    @Test
+    void passwordChangeRevokesOldTokensAndReturnsAFreshOne() throws Exception {
+        String oldToken = login(PASSWORD);
+
+        String body = mockMvc.perform(put("/api/auth/password")
+                        .header("Authorization", "Bearer " + oldToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"oldPassword\":\"password\",\"newPassword\":\"new-password\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String newToken = objectMapper.readTree(body).get("token").asText();
+
+        mockMvc.perform(get("/api/trips").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/trips").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void tokensWithoutStatelessClaimsStillWork() throws Exception {
+        String legacy = jwtService.generateToken(USERNAME);
+
+        mockMvc.perform(get("/api/trips").header("Authorization", "Bearer " + legacy))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String password) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(password)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private static String credentials(String password) {
+        return "{\"username\":\"%s\",\"password\":\"%s\"}".formatted(USERNAME, password);
+    }
+
+    private double filterCount(String outcome) {
+        return meterRegistry.timer("travelcompanion.jwt.filter", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,95 @@
+package dev.hafil.travelCompanion.security;
+
+import dev.hafil.travelCompanion.model.User;
+import dev.hafil.travelCompanion.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UsernameAvailabilityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void newNamesSkipTheLookupAndTakenNamesAreRejected() throws Exception {
+        long free = usernameIndex.negativeCount();
+
+        register("fresh-name").andExpect(status().isOk());
+        assertThat(usernameIndex.negativeCount()).isEqualTo(free + 1);
+
+        register("fresh-name").andExpect(status().isConflict());
+    }
+
+    @Test
+    void namesSavedBehindTheIndexAreStillRejected() throws Exception {
+        // as if another instance had registered it: the constraint has the final word
+        userRepo.save(new User("elsewhere", new BCryptPasswordEncoder(4).encode("password")));
+
+        register("elsewhere").andExpect(status().isConflict());
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneNameYieldOneWinnerAndConflicts() throws Exception {
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                statuses.add(pool.submit(() -> {
+                    start.await();
+                    return register("contested").andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get());
+            }
+            assertThat(results).containsOnly(200, 409);
+            assertThat(results).filteredOn(s -> s == 200).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ResultActions register(String username) throws Exception {
+        return mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"%s\",\"password\":\"password\"}".formatted(username)));
+    }
+}
@@ -0,0 +1,83 @@
+package dev.hafil.travelCompanion.support;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Gemini: answers every prompt with a fixed suggestion
+ * payload after a configurable delay, so tests can exercise the AI paths
+ * without network access or API cost. The delay can be changed and the
+ * model made to fail or to answer with other text at runtime, to simulate
+ * an outage or a misbehaving model.
+ */
+public class StubChatModel implements ChatModel {
+
+    public static final String RESPONSE = """
+            {"places": ["Old Town", "Harbour Walk"], "items": ["Sunscreen", "Rain jacket"]}
+            """;
+
+    private volatile Duration latency;
+    private volatile String response = RESPONSE;
+    private volatile boolean failing;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public StubChatModel(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public int callCount() {
+        return calls.get();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        if (failing) {
+            throw new IllegalStateException("Stub model is failing");
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating model latency", ex);
+        }
+        return response(response);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        calls.incrementAndGet();
+        if (failing) {
+            return Flux.error(new IllegalStateException("Stub model is failing"));
+        }
+        String text = response;
+        int mid = text.length() / 2;
+        return Flux.just(text.substring(0, mid), text.substring(mid))
+                .delayElements(latency.dividedBy(2))
+                .map(StubChatModel::response);
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,18 @@
+package dev.hafil.travelCompanion.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@TestConfiguration(proxyBeanMethods = false)
+public class StubChatModelConfiguration {
+
+    @Bean
+    @Primary
+    StubChatModel stubChatModel(@Value("${stub.chat.latency-ms:200}") long latencyMs) {
+        return new StubChatModel(Duration.ofMillis(latencyMs));
+    }
+}